@@ -0,0 +1,210 @@
+package com.github.g4memas0n.services;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Item Tracker, that tracks the inventory slots of players that contain service items.
+ *
+ * <p>The slots are tracked incrementally as mask in the {@link PlayerState} of each player. Inventory events mark
+ * the affected slots as pending and only these slots get evaluated again on the next access. The whole inventory is
+ * only scanned when the affected slots of an inventory change are unknown. The item permissions are not tracked,
+ * but checked on each access for the service item slots only.</p>
+ *
+ * <p>The tracked slots are used for service items anywhere in the inventory and for service items in other
+ * equipment slots than the main hand, like the off-hand or armor slots.</p>
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class ItemTracker {
+
+    /**
+     * The mask of all inventory slots.
+     */
+    public static final long ALL = (1L << PlayerState.SLOTS) - 1;
+
+    /**
+     * The mask of the armor and off-hand slots.
+     */
+    private static final long EQUIPMENT_SLOTS = 0x1FL << 36;
+
+    /**
+     * The inventory slots of the equipment slots, indexed by the ordinal of the equipment slot.
+     */
+    private static final int[] EQUIPMENT;
+    private static final EquipmentSlot[] SLOTS = EquipmentSlot.values();
+
+    static {
+        EQUIPMENT = new int[SLOTS.length];
+        EQUIPMENT[EquipmentSlot.HAND.ordinal()] = -1;
+        EQUIPMENT[EquipmentSlot.OFF_HAND.ordinal()] = 40;
+        EQUIPMENT[EquipmentSlot.FEET.ordinal()] = 36;
+        EQUIPMENT[EquipmentSlot.LEGS.ordinal()] = 37;
+        EQUIPMENT[EquipmentSlot.CHEST.ordinal()] = 38;
+        EQUIPMENT[EquipmentSlot.HEAD.ordinal()] = 39;
+    }
+
+    private final Services instance;
+
+    public ItemTracker(@NotNull final Services instance) {
+        this.instance = instance;
+    }
+
+    /**
+     * Returns whether the service item slots get tracked.
+     *
+     * @return true if service items anywhere or in other equipment slots than the main hand are enabled.
+     */
+    public boolean isEnabled() {
+        return this.instance.getSettings().isServiceAnywhere() || this.instance.getSettings().isServiceEquipment();
+    }
+
+    /**
+     * Returns the mask of inventory slots in which service items activates service mode.
+     *
+     * @param player the player to get the mask for.
+     * @param held the currently held inventory slot of the player or -1 if unknown.
+     * @return the mask of service inventory slots.
+     */
+    public long getMask(@NotNull final Player player, final int held) {
+        if (this.instance.getSettings().isServiceAnywhere()) {
+            return ALL;
+        }
+
+        long mask = 0L;
+
+        for (final EquipmentSlot slot : SLOTS) {
+            if (this.instance.getSettings().isServiceSlot(slot)) {
+                mask |= 1L << (slot == EquipmentSlot.HAND
+                        ? (held >= 0 ? held : player.getInventory().getHeldItemSlot()) : EQUIPMENT[slot.ordinal()]);
+            }
+        }
+
+        return mask;
+    }
+
+    /**
+     * Marks the given inventory slot of the given player as changed.
+     *
+     * @param player the player whose inventory has changed.
+     * @param slot the changed inventory slot.
+     */
+    public void mark(@NotNull final Player player, final int slot) {
+        if (this.isEnabled() && slot >= 0 && slot < PlayerState.SLOTS) {
+            this.instance.getManager().getState(player).addPending(1L << slot);
+        }
+    }
+
+    /**
+     * Marks the whole inventory of the given player as changed.
+     *
+     * <p>This also invalidates the cached service item verdicts of the player, as the items may have been changed
+     * without any event, like by commands or other plugins.</p>
+     *
+     * @param player the player whose inventory has changed.
+     */
+    public void markAll(@NotNull final Player player) {
+        final PlayerState state = this.instance.getManager().getState(player);
+
+        state.invalidateItems();
+
+        if (this.isEnabled()) {
+            state.invalidateTracking();
+        }
+    }
+
+    /**
+     * Marks the armor slots of the given player as changed.
+     *
+     * @param player the player whose armor has changed.
+     */
+    public void markArmor(@NotNull final Player player) {
+        if (this.isEnabled()) {
+            this.instance.getManager().getState(player).addPending(0xFL << 36);
+        }
+    }
+
+    /**
+     * Returns whether the given material can be equipped to an armor slot by using it.
+     *
+     * @param material the material to check.
+     * @return true if the material is an armor item.
+     */
+    public static boolean isArmor(@NotNull final Material material) {
+        final String name = material.name();
+
+        return name.endsWith("_HELMET") || name.endsWith("_CHESTPLATE") || name.endsWith("_LEGGINGS")
+                || name.endsWith("_BOOTS") || material == Material.ELYTRA;
+    }
+
+    /**
+     * Returns whether the given player carries a permitted service item in any of the given inventory slots.
+     *
+     * @param player the player to check.
+     * @param mask the mask of inventory slots to check.
+     * @return true if any of the inventory slots contains a permitted service item.
+     * @see #getMask(Player, int)
+     */
+    public boolean hasServiceItem(@NotNull final Player player, final long mask) {
+        final PlayerState state = this.instance.getManager().getState(player);
+
+        // Note: equipment slots get changed without any event, like by the API or by damage, so they are always
+        // evaluated again. These are at most five slots.
+        state.addPending(mask & EQUIPMENT_SLOTS);
+
+        if (!state.isTracked()) {
+            long items = 0L;
+
+            for (int slot = 0; slot < PlayerState.SLOTS; slot++) {
+                if (this.isServiceItem(player, slot)) {
+                    items |= 1L << slot;
+                }
+            }
+
+            state.setItems(items);
+        } else if (state.getPending() != 0L) {
+            long items = state.getItems();
+
+            for (long remaining = state.getPending(); remaining != 0L; remaining &= remaining - 1) {
+                final int slot = Long.numberOfTrailingZeros(remaining);
+
+                if (this.isServiceItem(player, slot)) {
+                    items |= 1L << slot;
+                } else {
+                    items &= ~(1L << slot);
+                }
+            }
+
+            state.setItems(items);
+        }
+
+        final long items = state.getItems() & mask;
+
+        if (items == 0L || !this.instance.getSettings().isPermissionPerItem()) {
+            return items != 0L;
+        }
+
+        // Note: permissions are checked live, as permission plugins do not notify about permission changes.
+        for (long remaining = items; remaining != 0L; remaining &= remaining - 1) {
+            final ItemStack item = player.getInventory().getItem(Long.numberOfTrailingZeros(remaining));
+
+            if (item != null && player.hasPermission("services.item." + item.getType().getKey().getKey())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isServiceItem(@NotNull final Player player, final int slot) {
+        final PlayerInventory inventory = player.getInventory();
+        final ItemStack item = inventory.getItem(slot);
+
+        return item != null && this.instance.isServiceItem(player, slot, item);
+    }
+}
@@ -0,0 +1,296 @@
+package com.github.g4memas0n.services;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+import org.jetbrains.annotations.NotNull;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item Vault, that keeps the service items that were removed from the drops of players on death.
+ *
+ * <p>The vaults are held in memory, so that the items can be restored on respawn without any disk access. Changed
+ * vaults are written in batches by a single background thread to a binary file per player. The vault of a player is
+ * loaded asynchronously while the player logs in, after the pending write of the same vault has finished.</p>
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class ItemVault {
+
+    /**
+     * The delay in ticks, after that changed vaults get written.
+     */
+    private static final long FLUSH_DELAY = 20L;
+
+    private static final int VERSION = 1;
+    private static final ItemStack[] EMPTY = new ItemStack[0];
+
+    private final Map<UUID, ItemStack[]> vaults;
+    private final Map<UUID, CompletableFuture<Void>> pending;
+    private final Set<UUID> dirty;
+    private final Services instance;
+    private final File directory;
+
+    private ExecutorService writer;
+    private boolean scheduled;
+
+    public ItemVault(@NotNull final Services instance) {
+        this.vaults = new ConcurrentHashMap<>();
+        this.pending = new ConcurrentHashMap<>();
+        this.dirty = new HashSet<>();
+        this.instance = instance;
+        this.directory = new File(instance.getDataFolder(), "vaults");
+    }
+
+    public void enable() {
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "Services-Vault-Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Writes all changed vaults and waits until all writes are finished.
+     */
+    public void disable() {
+        this.flush();
+        this.writer.shutdown();
+
+        try {
+            if (!this.writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                this.instance.getLogger().warning("Unable to write all item vaults: Timeout has been reached.");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        this.writer = null;
+        this.vaults.clear();
+    }
+
+    /**
+     * Loads the vault of the player with the given unique id.
+     *
+     * <p>Note: This method is called asynchronously while the player logs in and is allowed to block. The vault is
+     * read on the calling thread, but only after a pending write of the same vault has finished, so that logins do
+     * not wait for the writes of other vaults.</p>
+     *
+     * @param uniqueId the unique id of the player that logs in.
+     */
+    public void load(@NotNull final UUID uniqueId) {
+        if (this.writer == null || this.vaults.containsKey(uniqueId)) {
+            return;
+        }
+
+        final CompletableFuture<Void> write = this.pending.get(uniqueId);
+
+        try {
+            if (write != null) {
+                write.join();
+            }
+
+            final ItemStack[] items = this.read(uniqueId);
+
+            if (items.length > 0) {
+                this.vaults.putIfAbsent(uniqueId, items);
+            }
+        } catch (IOException | ClassNotFoundException ex) {
+            this.instance.getLogger().warning("Unable to load item vault of player '" + uniqueId + "': " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Discards the loaded vault of the player with the given unique id, whose login was denied.
+     *
+     * @param uniqueId the unique id of the player whose login was denied.
+     */
+    public void discard(@NotNull final UUID uniqueId) {
+        // Note: vaults are only changed by joined players, so the vault of a denied login is never changed.
+        if (!this.dirty.contains(uniqueId)) {
+            this.vaults.remove(uniqueId);
+        }
+    }
+
+    /**
+     * Unloads the vault of the given player, that is quitting. Changed vaults are written before.
+     *
+     * @param player the player that is quitting.
+     */
+    public void unload(@NotNull final Player player) {
+        if (this.dirty.contains(player.getUniqueId())) {
+            this.flush();
+        }
+
+        this.vaults.remove(player.getUniqueId());
+    }
+
+    /**
+     * Stores the given items in the vault of the given player.
+     *
+     * @param player the player that died.
+     * @param items the items that were removed from the drops.
+     */
+    public void store(@NotNull final Player player, @NotNull final Collection<ItemStack> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        final ItemStack[] stored = this.vaults.getOrDefault(player.getUniqueId(), EMPTY);
+        final ItemStack[] vault = new ItemStack[stored.length + items.size()];
+        int index = stored.length;
+
+        System.arraycopy(stored, 0, vault, 0, stored.length);
+
+        for (final ItemStack item : items) {
+            vault[index++] = item.clone();
+        }
+
+        this.vaults.put(player.getUniqueId(), vault);
+        this.markDirty(player.getUniqueId());
+    }
+
+    /**
+     * Removes and returns the items of the vault of the given player, that respawns.
+     *
+     * @param player the player that respawns.
+     * @return the items of the vault, which may be empty.
+     */
+    public @NotNull ItemStack[] restore(@NotNull final Player player) {
+        final ItemStack[] items = this.vaults.remove(player.getUniqueId());
+
+        if (items == null) {
+            return EMPTY;
+        }
+
+        this.markDirty(player.getUniqueId());
+        return items;
+    }
+
+    private void markDirty(@NotNull final UUID uniqueId) {
+        this.dirty.add(uniqueId);
+
+        if (!this.scheduled) {
+            this.instance.scheduleTask(this::flush, FLUSH_DELAY);
+            this.scheduled = true;
+        }
+    }
+
+    /**
+     * Writes all changed vaults in a single batch on the writer thread.
+     */
+    private void flush() {
+        this.scheduled = false;
+
+        if (this.dirty.isEmpty()) {
+            return;
+        }
+
+        final Map<UUID, ItemStack[]> batch = new HashMap<>(this.dirty.size());
+
+        // Take copies of the items, so that they can be serialized on the writer thread:
+        for (final UUID uniqueId : this.dirty) {
+            final ItemStack[] items = this.vaults.getOrDefault(uniqueId, EMPTY);
+            final ItemStack[] copies = new ItemStack[items.length];
+
+            for (int index = 0; index < items.length; index++) {
+                copies[index] = items[index].clone();
+            }
+
+            batch.put(uniqueId, copies);
+        }
+
+        final CompletableFuture<Void> write = new CompletableFuture<>();
+
+        // Register the write before it is handed over, so that loads of these vaults wait for it:
+        for (final UUID uniqueId : batch.keySet()) {
+            this.pending.put(uniqueId, write);
+        }
+
+        this.dirty.clear();
+        this.writer.execute(() -> {
+            try {
+                batch.forEach(this::write);
+            } finally {
+                batch.keySet().forEach(uniqueId -> this.pending.remove(uniqueId, write));
+                write.complete(null);
+            }
+        });
+    }
+
+    private @NotNull File getFile(@NotNull final UUID uniqueId) {
+        return new File(this.directory, uniqueId + ".dat");
+    }
+
+    private @NotNull ItemStack[] read(@NotNull final UUID uniqueId) throws IOException, ClassNotFoundException {
+        final File file = this.getFile(uniqueId);
+
+        if (!file.isFile()) {
+            return EMPTY;
+        }
+
+        try (BukkitObjectInputStream input = new BukkitObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != VERSION) {
+                throw new IOException("Unsupported vault version");
+            }
+
+            final ItemStack[] items = new ItemStack[input.readInt()];
+
+            for (int index = 0; index < items.length; index++) {
+                items[index] = (ItemStack) input.readObject();
+            }
+
+            return items;
+        }
+    }
+
+    private void write(@NotNull final UUID uniqueId, @NotNull final ItemStack[] items) {
+        final File file = this.getFile(uniqueId);
+
+        try {
+            if (items.length == 0) {
+                Files.deleteIfExists(file.toPath());
+                return;
+            }
+
+            if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+                throw new IOException("Unable to create directory " + this.directory.getName());
+            }
+
+            final File temp = new File(this.directory, uniqueId + ".tmp");
+
+            try (BukkitObjectOutputStream output = new BukkitObjectOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                output.writeInt(VERSION);
+                output.writeInt(items.length);
+
+                for (final ItemStack item : items) {
+                    output.writeObject(item);
+                }
+            }
+
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            this.instance.getLogger().warning("Unable to write item vault of player '" + uniqueId + "': " + ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,546 @@
+package com.github.g4memas0n.services;
+
+import com.github.g4memas0n.services.config.ZoneIndex;
+import org.bukkit.Material;
+import org.bukkit.event.entity.EntityDamageEvent.DamageCause;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Player State, that represents the session of a single player.
+ *
+ * <p>The session owns the cached service decisions and all scheduled tasks of the player, so that everything
+ * related to the player gets released in one step when the session gets {@link #close() closed}.</p>
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class PlayerState {
+
+    /**
+     * The count of inventory slots of a player, including the armor slots and the off-hand slot.
+     */
+    public static final int SLOTS = 41;
+
+    /**
+     * The count of damage causes, by whose ordinal the prevented damage is indexed.
+     */
+    public static final int CAUSES = DamageCause.values().length;
+
+    private final int[] fingerprints;
+    private final boolean[] verdicts;
+
+    private long items;
+    private long pending;
+    private boolean tracked;
+
+    private int evaluated;
+    private int passed;
+    private int blockX;
+    private int blockY;
+    private int blockZ;
+    private boolean exact;
+
+    private long worlds;
+    private long known;
+    private int generation;
+
+    private boolean handoff;
+
+    private long active;
+    private boolean idle;
+
+    private final BitSet used;
+    private String world;
+    private final double[] prevented;
+    private final int[] hits;
+    private long started;
+    private long expiry;
+    private long cooldown;
+    private long notified;
+
+    private BukkitTask schedule;
+    private BukkitTask warmup;
+    private BukkitTask grace;
+
+    private final long created;
+
+    public PlayerState() {
+        this.fingerprints = new int[SLOTS];
+        this.verdicts = new boolean[SLOTS];
+        this.generation = -1;
+        this.used = new BitSet();
+        this.prevented = new double[CAUSES];
+        this.hits = new int[CAUSES];
+        this.created = System.currentTimeMillis();
+        this.active = this.created;
+    }
+
+    public long getCreated() {
+        return this.created;
+    }
+
+    /**
+     * Closes this session, by cancelling all scheduled tasks and invalidating all cached decisions.
+     */
+    public void close() {
+        this.setSchedule(null);
+        this.setWarmup(null);
+        this.setGrace(null);
+        this.invalidateRequirements();
+        this.invalidateWorlds();
+        this.invalidateItems();
+        this.invalidateTracking();
+    }
+
+    /*
+     * Scheduled task section:
+     */
+
+    /**
+     * Sets the scheduled condition or service check of the player and cancels the previous one, if existed.
+     *
+     * @param task the scheduled check or null to cancel the previous one.
+     */
+    public void setSchedule(@Nullable final BukkitTask task) {
+        if (this.schedule != null) {
+            this.schedule.cancel();
+        }
+
+        this.schedule = task;
+    }
+
+    /**
+     * Clears the scheduled check of the player, without cancelling it.
+     */
+    public void clearSchedule() {
+        this.schedule = null;
+    }
+
+    /**
+     * Sets the task that enables the service after the warmup and cancels the previous one, if existed.
+     *
+     * @param task the warmup task or null to cancel the previous one.
+     */
+    public void setWarmup(@Nullable final BukkitTask task) {
+        if (this.warmup != null) {
+            this.warmup.cancel();
+        }
+
+        this.warmup = task;
+    }
+
+    /**
+     * Sets the task that disables the service after the grace and cancels the previous one, if existed.
+     *
+     * @param task the grace task or null to cancel the previous one.
+     */
+    public void setGrace(@Nullable final BukkitTask task) {
+        if (this.grace != null) {
+            this.grace.cancel();
+        }
+
+        this.grace = task;
+    }
+
+    /*
+     * Service requirement cache section:
+     */
+
+    /**
+     * Returns the mask of service requirements, whose results are cached.
+     *
+     * @return the evaluated requirements mask.
+     * @see com.github.g4memas0n.services.condition.ConditionEngine
+     */
+    public int getEvaluated() {
+        return this.evaluated;
+    }
+
+    /**
+     * Returns the mask of service requirements, that the player has passed.
+     *
+     * <p>Note: Only the bits of the {@link #getEvaluated() evaluated} requirements are valid.</p>
+     *
+     * @return the passed requirements mask.
+     */
+    public int getPassed() {
+        return this.passed;
+    }
+
+    public void setRequirements(final int evaluated, final int passed) {
+        this.evaluated = evaluated;
+        this.passed = passed;
+    }
+
+    /**
+     * Invalidates the cached results of all service requirements, so that they get evaluated on the next update.
+     */
+    public void invalidateRequirements() {
+        this.evaluated = 0;
+    }
+
+    /**
+     * Returns the key of the chunk, in that the service zone requirement was last evaluated.
+     *
+     * @return the chunk key.
+     * @see com.github.g4memas0n.services.config.ZoneIndex#key(int, int)
+     */
+    public long getChunk() {
+        return ZoneIndex.key(this.blockX >> 4, this.blockZ >> 4);
+    }
+
+    public int getBlockX() {
+        return this.blockX;
+    }
+
+    public int getBlockY() {
+        return this.blockY;
+    }
+
+    public int getBlockZ() {
+        return this.blockZ;
+    }
+
+    /**
+     * Sets the block position, at that the service zone requirement gets evaluated.
+     *
+     * @param x the block x coordinate.
+     * @param y the block y coordinate.
+     * @param z the block z coordinate.
+     */
+    public void setBlock(final int x, final int y, final int z) {
+        this.blockX = x;
+        this.blockY = y;
+        this.blockZ = z;
+    }
+
+    /**
+     * Returns whether the chunk of the last evaluated block position only partially belongs to a service zone, so
+     * that the service zone requirement must be evaluated again on each block change.
+     *
+     * @return true if the chunk requires an exact test.
+     */
+    public boolean isExact() {
+        return this.exact;
+    }
+
+    public void setExact(final boolean exact) {
+        this.exact = exact;
+    }
+
+    /*
+     * World slot cache section:
+     */
+
+    /**
+     * Returns the cached mask of world slots in that the player is allowed to use service.
+     *
+     * <p>Note: Only the bits of the {@link #getKnownWorlds() known} world slots are valid.</p>
+     *
+     * @return the allowed world slots mask.
+     * @see WorldRegistry#getSlot(org.bukkit.World)
+     */
+    public long getWorlds() {
+        return this.worlds;
+    }
+
+    /**
+     * Returns the mask of world slots for that the decision of the player is already cached.
+     *
+     * @return the known world slots mask.
+     */
+    public long getKnownWorlds() {
+        return this.known;
+    }
+
+    public void setWorld(final int slot, final boolean allowed) {
+        this.known |= 1L << slot;
+
+        if (allowed) {
+            this.worlds |= 1L << slot;
+        } else {
+            this.worlds &= ~(1L << slot);
+        }
+    }
+
+    public int getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Clears the cached world slots mask and assigns the given generation of the world registry.
+     *
+     * @param generation the current generation of the world registry.
+     */
+    public void resetWorlds(final int generation) {
+        this.worlds = 0L;
+        this.known = 0L;
+        this.generation = generation;
+    }
+
+    /**
+     * Invalidates the cached world slots mask, so that it gets recomputed on the next access.
+     */
+    public void invalidateWorlds() {
+        this.generation = -1;
+    }
+
+    /*
+     * Service item cache section:
+     */
+
+    /**
+     * Returns the fingerprint of the item for that the verdict of the given inventory slot is cached.
+     *
+     * @param slot the inventory slot.
+     * @return the cached fingerprint or zero if no verdict is cached.
+     */
+    public int getFingerprint(final int slot) {
+        return this.fingerprints[slot];
+    }
+
+    public boolean getVerdict(final int slot) {
+        return this.verdicts[slot];
+    }
+
+    public void setVerdict(final int slot, final int fingerprint, final boolean verdict) {
+        this.fingerprints[slot] = fingerprint;
+        this.verdicts[slot] = verdict;
+    }
+
+    /**
+     * Invalidates the cached verdicts of all inventory slots, so that they get recomputed on the next access.
+     */
+    public void invalidateItems() {
+        Arrays.fill(this.fingerprints, 0);
+    }
+
+    /*
+     * Service item tracking section:
+     */
+
+    /**
+     * Returns the mask of inventory slots that contain a service item.
+     *
+     * <p>Note: The mask does not include the item permissions of the player, as they may change at any time.</p>
+     *
+     * @return the service item slots mask.
+     * @see ItemTracker#hasServiceItem(org.bukkit.entity.Player, long)
+     */
+    public long getItems() {
+        return this.items;
+    }
+
+    public void setItems(final long items) {
+        this.items = items;
+        this.pending = 0L;
+        this.tracked = true;
+    }
+
+    public long getPending() {
+        return this.pending;
+    }
+
+    public void addPending(final long pending) {
+        this.pending |= pending;
+    }
+
+    public boolean isTracked() {
+        return this.tracked;
+    }
+
+    /**
+     * Invalidates the tracked service item slots mask, so that the whole inventory gets scanned on the next access.
+     */
+    public void invalidateTracking() {
+        this.tracked = false;
+    }
+
+    /*
+     * Service state synchronization section:
+     */
+
+    /**
+     * Returns whether the player was in service on another server and is joining this server.
+     *
+     * @return true if the service state of the player is taken over from another server.
+     * @see com.github.g4memas0n.services.sync.SyncManager#join(org.bukkit.entity.Player)
+     */
+    public boolean isHandoff() {
+        return this.handoff;
+    }
+
+    public void setHandoff(final boolean handoff) {
+        this.handoff = handoff;
+    }
+
+    /*
+     * Player activity section:
+     */
+
+    /**
+     * Returns the time of the last activity of the player.
+     *
+     * @return the last activity time in milliseconds.
+     * @see ServiceManager#detectIdle()
+     */
+    public long getActive() {
+        return this.active;
+    }
+
+    public void setActive(final long active) {
+        this.active = active;
+    }
+
+    /**
+     * Returns whether the player was moved to grace, because it has been idle, and was not active since.
+     *
+     * @return true if the player has been idle.
+     * @see ServiceManager#markActive(org.bukkit.entity.Player)
+     */
+    public boolean isIdle() {
+        return this.idle;
+    }
+
+    public void setIdle(final boolean idle) {
+        this.idle = idle;
+    }
+
+    /*
+     * Service session section:
+     */
+
+    /**
+     * Starts the service session of the player.
+     *
+     * @param started the time the player has entered the service mode.
+     * @param world the name of the world, in that the player has entered the service mode.
+     */
+    public void startSession(final long started, @NotNull final String world) {
+        this.started = started;
+        this.world = world;
+    }
+
+    /**
+     * Ends the service session of the player, by resetting all recorded session statistics.
+     */
+    public void endSession() {
+        this.started = 0L;
+        this.expiry = 0L;
+        Arrays.fill(this.prevented, 0D);
+        Arrays.fill(this.hits, 0);
+        this.used.clear();
+    }
+
+    /**
+     * Returns the time the player has entered the service mode.
+     *
+     * @return the start time of the service session in milliseconds or zero if the player is not in service.
+     */
+    public long getStarted() {
+        return this.started;
+    }
+
+    public @NotNull String getWorld() {
+        return this.world != null ? this.world : "";
+    }
+
+    /**
+     * Returns the total damage, that was prevented in the service session of the player.
+     *
+     * @return the prevented damage.
+     */
+    public double getPrevented() {
+        double total = 0D;
+
+        for (final double damage : this.prevented) {
+            total += damage;
+        }
+
+        return total;
+    }
+
+    /**
+     * Returns the damage, that was prevented in the service session of the player, indexed by damage cause ordinal.
+     *
+     * <p>Note: The returned array is owned by this session and must not be modified.</p>
+     *
+     * @return the prevented damage by cause.
+     */
+    public @NotNull double[] getPreventedByCause() {
+        return this.prevented;
+    }
+
+    /**
+     * Returns the count of prevented damage events in the service session, indexed by damage cause ordinal.
+     *
+     * <p>Note: The returned array is owned by this session and must not be modified.</p>
+     *
+     * @return the prevented hits by cause.
+     */
+    public @NotNull int[] getHitsByCause() {
+        return this.hits;
+    }
+
+    public void addPrevented(@NotNull final DamageCause cause, final double damage) {
+        this.prevented[cause.ordinal()] += damage;
+        this.hits[cause.ordinal()]++;
+    }
+
+    /**
+     * Returns the service items, that the player has used in the service session, indexed by material ordinal.
+     *
+     * @return the used service items.
+     */
+    public @NotNull BitSet getUsed() {
+        return this.used;
+    }
+
+    public void addUsed(@NotNull final Material material) {
+        this.used.set(material.ordinal());
+    }
+
+    /**
+     * Returns the time the service session of the player expires.
+     *
+     * @return the expiry time in milliseconds or zero if the session is unlimited.
+     * @see ServiceManager#detectExpiries()
+     */
+    public long getExpiry() {
+        return this.expiry;
+    }
+
+    public void setExpiry(final long expiry) {
+        this.expiry = expiry;
+    }
+
+    /**
+     * Returns the time the cooldown of the player ends, after its last service session has expired.
+     *
+     * @return the end time of the cooldown in milliseconds or zero if the player is not on cooldown.
+     */
+    public long getCooldown() {
+        return this.cooldown;
+    }
+
+    public void setCooldown(final long cooldown) {
+        this.cooldown = cooldown;
+    }
+
+    /**
+     * Returns the time the player was last notified about its remaining cooldown.
+     *
+     * @return the time of the last notification in milliseconds or zero if the player was never notified.
+     */
+    public long getNotified() {
+        return this.notified;
+    }
+
+    public void setNotified(final long notified) {
+        this.notified = notified;
+    }
+}
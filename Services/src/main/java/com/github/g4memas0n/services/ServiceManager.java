@@ -1,48 +1,196 @@
 package com.github.g4memas0n.services;
 
+import com.github.g4memas0n.services.api.ServiceSnapshot;
+import com.github.g4memas0n.services.api.ServicesAPI;
+import com.github.g4memas0n.services.api.event.GraceAbortEvent;
+import com.github.g4memas0n.services.api.event.GraceStartEvent;
+import com.github.g4memas0n.services.api.event.ServiceDisableEvent;
+import com.github.g4memas0n.services.api.event.ServiceEnableEvent;
+import com.github.g4memas0n.services.api.event.ServicePlayerEvent;
+import com.github.g4memas0n.services.api.event.WarmupAbortEvent;
+import com.github.g4memas0n.services.api.event.WarmupStartEvent;
+import com.github.g4memas0n.services.condition.ConditionEngine;
 import net.md_5.bungee.api.ChatMessageType;
 import net.md_5.bungee.api.chat.TextComponent;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.github.g4memas0n.services.util.Messages.tl;
 
 /**
  * Service Manager, that manages all players in warmup, service, grace and also in condition.
  *
+ * <p>All state changes must be performed on the main thread. On each state change, an immutable snapshot of the
+ * service state of the player gets published, so that the state queries can safely be called from any thread.</p>
+ *
+ * <p>The scheduled tasks and cached decisions of each player are owned by the {@link PlayerState session} of the
+ * player, that gets torn down in one step when the player quits.</p>
+ *
  * @author G4meMas0n
  * @since Release 1.0.0
  */
-public final class ServiceManager {
+public final class ServiceManager implements ServicesAPI {
+
+    /**
+     * The time in milliseconds, after that prepared sessions of players that never joined get discarded.
+     */
+    private static final long PREPARED_TIMEOUT = 60000L;
 
-    private final Map<UUID, BukkitTask> warmups;
-    private final Map<UUID, BukkitTask> graces;
+    private final Map<UUID, ServiceSnapshot> snapshots;
+    private final Map<UUID, PlayerState> states;
+    private final Map<UUID, PlayerState> prepared;
+    private final Map<UUID, Long> cooldowns;
     private final Set<UUID> conditions;
+    private final Set<UUID> warmups;
     private final Set<UUID> services;
+    private final Set<UUID> graces;
+    private final Queue<Expiry> expiries;
+
+    private final Set<UUID> warmupView;
+    private final Set<UUID> serviceView;
+    private final Set<UUID> graceView;
 
     private final Services instance;
 
+    private volatile int conditionCount;
+    private volatile int warmupCount;
+    private volatile int serviceCount;
+    private volatile int graceCount;
+
     public ServiceManager(@NotNull final Services instance) {
-        this.warmups = new HashMap<>();
-        this.graces = new HashMap<>();
+        this.snapshots = new ConcurrentHashMap<>();
+        this.states = new HashMap<>();
+        this.prepared = new ConcurrentHashMap<>();
+        this.cooldowns = new HashMap<>();
         this.conditions = new HashSet<>();
-        this.services = new HashSet<>();
+        this.warmups = new LinkedHashSet<>();
+        this.services = new LinkedHashSet<>();
+        this.graces = new LinkedHashSet<>();
+        this.expiries = new PriorityQueue<>();
+
+        this.warmupView = Collections.unmodifiableSet(this.warmups);
+        this.serviceView = Collections.unmodifiableSet(this.services);
+        this.graceView = Collections.unmodifiableSet(this.graces);
 
         this.instance = instance;
     }
 
+    /*
+     * Player state get/remove section:
+     */
+
+    public @NotNull PlayerState getState(@NotNull final Player player) {
+        final PlayerState state = this.states.get(player.getUniqueId());
+
+        // Avoid the capturing lambda on the hot path, as the state is looked up on each player move:
+        if (state != null) {
+            return state;
+        }
+
+        return this.states.computeIfAbsent(player.getUniqueId(), uuid -> {
+            final PlayerState prepared = this.prepared.remove(uuid);
+            final PlayerState state = prepared != null ? prepared : new PlayerState();
+            final Long cooldown = this.cooldowns.remove(uuid);
+
+            // Restore the cooldown of the previous session, so that it can not be bypassed by re-joining:
+            if (cooldown != null) {
+                state.setCooldown(cooldown);
+            }
+
+            return state;
+        });
+    }
+
+    /**
+     * Tears down the session of the given player, that is quitting.
+     *
+     * <p>All scheduled tasks of the player get cancelled and the player gets removed from condition, warmup, service
+     * and grace without any notification.</p>
+     *
+     * @param player the player that is quitting.
+     * @return true if the player had a session.
+     */
+    public boolean removeState(@NotNull final Player player) {
+        return this.removeState(player.getUniqueId());
+    }
+
+    private boolean removeState(@NotNull final UUID uniqueId) {
+        final PlayerState state = this.states.remove(uniqueId);
+
+        if (state != null) {
+            if (state.getCooldown() > System.currentTimeMillis()) {
+                this.cooldowns.put(uniqueId, state.getCooldown());
+            }
+
+            state.close();
+        }
+
+        if (this.conditions.remove(uniqueId) | this.warmups.remove(uniqueId)
+                | this.services.remove(uniqueId) | this.graces.remove(uniqueId)) {
+            this.publish(uniqueId);
+            return true;
+        }
+
+        return state != null;
+    }
+
+    /**
+     * Prepares the state of the player with the given unique id, that is logging in.
+     *
+     * <p>The prepared state gets taken over by the first {@link #getState(Player)} call for the player, so that
+     * the state is already present when the join gets handled.</p>
+     *
+     * <p>Note: Only the blocking work is done while logging in, which is the prefetch of the synchronized service
+     * state and the load of the item vault. The requirements and the service items depend on the permissions, the
+     * location and the inventory of the player, which are only available after the player has joined. So these are
+     * still evaluated on the join.</p>
+     *
+     * <p>Note: This method can safely be called from any thread.</p>
+     *
+     * @param uniqueId the unique id of the player that is logging in.
+     * @param handoff whether the player was in service on another server.
+     */
+    public void prepareState(@NotNull final UUID uniqueId, final boolean handoff) {
+        final PlayerState state = new PlayerState();
+
+        state.setHandoff(handoff);
+
+        this.prepared.put(uniqueId, state);
+    }
+
+    public boolean discardState(@NotNull final UUID uniqueId) {
+        return this.prepared.remove(uniqueId) != null;
+    }
+
+    public void invalidateItems() {
+        for (final PlayerState state : this.states.values()) {
+            state.invalidateItems();
+            state.invalidateTracking();
+        }
+    }
+
     /*
      * Condition add/remove section:
      */
 
     public boolean addCondition(@NotNull final Player player) {
         if (this.conditions.add(player.getUniqueId())) {
+            // Activity is only tracked in condition, so entering condition counts as activity:
+            this.getState(player).setActive(System.currentTimeMillis());
+            this.publish(player.getUniqueId());
+
             if (this.instance.getSettings().isDebug()) {
                 this.instance.getLogger().info(String.format("Player '%s' is now in condition for service.", player.getName()));
             }
@@ -55,6 +203,8 @@ public final class ServiceManager {
 
     public boolean removeCondition(@NotNull final Player player) {
         if (this.conditions.remove(player.getUniqueId())) {
+            this.publish(player.getUniqueId());
+
             if (this.instance.getSettings().isDebug()) {
                 this.instance.getLogger().info(String.format("Player '%s' is no longer in condition for service.", player.getName()));
             }
@@ -65,8 +215,14 @@ public final class ServiceManager {
         return false;
     }
 
+    @Override
     public boolean isCondition(@NotNull final Player player) {
-        return this.conditions.contains(player.getUniqueId());
+        return this.getSnapshot(player.getUniqueId()).isCondition();
+    }
+
+    @Override
+    public boolean isCondition(@NotNull final UUID uniqueId) {
+        return this.getSnapshot(uniqueId).isCondition();
     }
 
     /*
@@ -78,13 +234,18 @@ public final class ServiceManager {
             return this.removeGrace(player);
         }
 
-        if (this.instance.getSettings().isWarmupPeriod() && !this.warmups.containsKey(player.getUniqueId())) {
-            this.warmups.put(player.getUniqueId(), this.instance.scheduleTask(() -> this.addService(player), period * 20));
+        if (this.instance.getSettings().isWarmupPeriod() && this.warmups.add(player.getUniqueId())) {
+            this.getState(player).setWarmup(this.instance.scheduleTask(player, this::addService, period * 20));
+            this.publish(player.getUniqueId());
 
             if (this.instance.getSettings().isDebug()) {
                 this.instance.getLogger().info(String.format("Player '%s' is now in warmup.", player.getName()));
             }
 
+            if (ServicePlayerEvent.isListened(WarmupStartEvent.getHandlerList())) {
+                this.instance.getServer().getPluginManager().callEvent(new WarmupStartEvent(player, period));
+            }
+
             this.notify(player, tl("service.warmup.start", period));
             return true;
         }
@@ -93,13 +254,19 @@ public final class ServiceManager {
     }
 
     public boolean removeWarmup(@NotNull final Player player) {
-        if (this.warmups.containsKey(player.getUniqueId())) {
-            this.warmups.remove(player.getUniqueId()).cancel();
+        if (this.warmups.remove(player.getUniqueId())) {
+            this.getState(player).setWarmup(null);
+            this.getState(player).endSession();
+            this.publish(player.getUniqueId());
 
             if (this.instance.getSettings().isDebug()) {
                 this.instance.getLogger().info(String.format("Player '%s' is no longer in warmup.", player.getName()));
             }
 
+            if (ServicePlayerEvent.isListened(WarmupAbortEvent.getHandlerList())) {
+                this.instance.getServer().getPluginManager().callEvent(new WarmupAbortEvent(player));
+            }
+
             this.notify(player, tl("service.warmup.abort"));
             return true;
         }
@@ -107,8 +274,14 @@ public final class ServiceManager {
         return false;
     }
 
+    @Override
     public boolean isWarmup(@NotNull final Player player) {
-        return this.warmups.containsKey(player.getUniqueId());
+        return this.getSnapshot(player.getUniqueId()).isWarmup();
+    }
+
+    @Override
+    public boolean isWarmup(@NotNull final UUID uniqueId) {
+        return this.getSnapshot(uniqueId).isWarmup();
     }
 
     /*
@@ -117,12 +290,35 @@ public final class ServiceManager {
 
     public boolean addService(@NotNull final Player player) {
         if (this.services.add(player.getUniqueId())) {
-            this.warmups.remove(player.getUniqueId());
+            if (this.warmups.remove(player.getUniqueId())) {
+                this.getState(player).setWarmup(null);
+            }
+
+            final PlayerState state = this.getState(player);
+            final long now = System.currentTimeMillis();
+
+            state.startSession(now, player.getWorld().getName());
+
+            if (this.instance.getSettings().isSessionPeriod() && !player.hasPermission("services.bypass.session")) {
+                final int period = this.instance.getSettings().getSessionPeriod(player);
+
+                if (period > 0) {
+                    state.setExpiry(now + period * 1000L);
+                    this.expiries.add(new Expiry(player.getUniqueId(), state.getExpiry(), false));
+                }
+            }
+
+            this.publish(player.getUniqueId());
+            this.instance.getSync().publish(player, true);
 
             if (this.instance.getSettings().isDebug()) {
                 this.instance.getLogger().info(String.format("Player '%s' is now in service mode.", player.getName()));
             }
 
+            if (ServicePlayerEvent.isListened(ServiceEnableEvent.getHandlerList())) {
+                this.instance.getServer().getPluginManager().callEvent(new ServiceEnableEvent(player));
+            }
+
             this.notify(player, tl("service.enable"));
             return true;
         }
@@ -131,13 +327,48 @@ public final class ServiceManager {
     }
 
     public boolean removeService(@NotNull final Player player) {
+        return this.removeService(player, true);
+    }
+
+    /**
+     * Removes the given player from service or warmup.
+     *
+     * @param player the player to remove from service.
+     * @param sync whether the ended service state gets published to the other servers, which must be false when the
+     *             player is quitting, as the quit gets published as handoff instead.
+     * @return true if the player was in service or warmup.
+     */
+    public boolean removeService(@NotNull final Player player, final boolean sync) {
         if (this.services.remove(player.getUniqueId())) {
-            this.graces.remove(player.getUniqueId());
+            if (this.graces.remove(player.getUniqueId())) {
+                this.getState(player).setGrace(null);
+            }
+
+            final PlayerState state = this.getState(player);
+
+            if (this.instance.getSettings().isDebug()) {
+                this.instance.getLogger().info(String.format("Service session of player '%s' has ended with %.1f prevented damage.",
+                        player.getName(), state.getPrevented()));
+            }
+
+            // Summarize the session before it ends, the queued expiry gets skipped as it no longer matches:
+            this.instance.getAudit().record(player, state);
+            state.endSession();
+
+            this.publish(player.getUniqueId());
+
+            if (sync) {
+                this.instance.getSync().publish(player, false);
+            }
 
             if (this.instance.getSettings().isDebug()) {
                 this.instance.getLogger().info(String.format("Player '%s' is no longer in service mode.", player.getName()));
             }
 
+            if (ServicePlayerEvent.isListened(ServiceDisableEvent.getHandlerList())) {
+                this.instance.getServer().getPluginManager().callEvent(new ServiceDisableEvent(player));
+            }
+
             this.notify(player, tl("service.disable"));
             return true;
         }
@@ -145,8 +376,14 @@ public final class ServiceManager {
         return this.removeWarmup(player);
     }
 
+    @Override
     public boolean isService(@NotNull final Player player) {
-        return this.services.contains(player.getUniqueId());
+        return this.getSnapshot(player.getUniqueId()).isService();
+    }
+
+    @Override
+    public boolean isService(@NotNull final UUID uniqueId) {
+        return this.getSnapshot(uniqueId).isService();
     }
 
     /*
@@ -158,13 +395,18 @@ public final class ServiceManager {
             return this.removeWarmup(player);
         }
 
-        if (this.instance.getSettings().isGracePeriod() && !this.graces.containsKey(player.getUniqueId())) {
-            this.graces.put(player.getUniqueId(), this.instance.scheduleTask(() -> this.removeService(player), period * 20));
+        if (this.instance.getSettings().isGracePeriod() && this.graces.add(player.getUniqueId())) {
+            this.getState(player).setGrace(this.instance.scheduleTask(player, this::removeService, period * 20));
+            this.publish(player.getUniqueId());
 
             if (this.instance.getSettings().isDebug()) {
                 this.instance.getLogger().info(String.format("Player '%s' is now in grace.", player.getName()));
             }
 
+            if (ServicePlayerEvent.isListened(GraceStartEvent.getHandlerList())) {
+                this.instance.getServer().getPluginManager().callEvent(new GraceStartEvent(player, period));
+            }
+
             this.notify(player, tl("service.grace.start", period));
             return true;
         }
@@ -173,13 +415,18 @@ public final class ServiceManager {
     }
 
     public boolean removeGrace(@NotNull final Player player) {
-        if (this.graces.containsKey(player.getUniqueId())) {
-            this.graces.remove(player.getUniqueId()).cancel();
+        if (this.graces.remove(player.getUniqueId())) {
+            this.getState(player).setGrace(null);
+            this.publish(player.getUniqueId());
 
             if (this.instance.getSettings().isDebug()) {
                 this.instance.getLogger().info(String.format("Player '%s' is no longer in grace.", player.getName()));
             }
 
+            if (ServicePlayerEvent.isListened(GraceAbortEvent.getHandlerList())) {
+                this.instance.getServer().getPluginManager().callEvent(new GraceAbortEvent(player));
+            }
+
             this.notify(player, tl("service.grace.abort"));
             return true;
         }
@@ -187,8 +434,350 @@ public final class ServiceManager {
         return false;
     }
 
+    @Override
     public boolean isGrace(@NotNull final Player player) {
-        return this.graces.containsKey(player.getUniqueId());
+        return this.getSnapshot(player.getUniqueId()).isGrace();
+    }
+
+    @Override
+    public boolean isGrace(@NotNull final UUID uniqueId) {
+        return this.getSnapshot(uniqueId).isGrace();
+    }
+
+    /*
+     * Service state snapshot section:
+     */
+
+    /**
+     * Returns the snapshot of the service state of the player with the given unique id.
+     *
+     * <p>Note: This method can safely be called from any thread.</p>
+     *
+     * @param uniqueId the unique id of the player.
+     * @return the snapshot of the service state of the player.
+     */
+    @Override
+    public @NotNull ServiceSnapshot getSnapshot(@NotNull final UUID uniqueId) {
+        final ServiceSnapshot snapshot = this.snapshots.get(uniqueId);
+
+        return snapshot != null ? snapshot : ServiceSnapshot.NONE;
+    }
+
+    private void publish(@NotNull final UUID uniqueId) {
+        if (!this.instance.getServer().isPrimaryThread()) {
+            throw new IllegalStateException("Asynchronous service state change of player " + uniqueId);
+        }
+
+        final ServiceSnapshot snapshot = ServiceSnapshot.of(this.conditions.contains(uniqueId),
+                this.warmups.contains(uniqueId), this.services.contains(uniqueId), this.graces.contains(uniqueId));
+
+        final ServiceSnapshot previous = snapshot == ServiceSnapshot.NONE
+                ? this.snapshots.remove(uniqueId) : this.snapshots.put(uniqueId, snapshot);
+
+        this.count(previous != null ? previous : ServiceSnapshot.NONE, snapshot);
+    }
+
+    private void count(@NotNull final ServiceSnapshot previous, @NotNull final ServiceSnapshot snapshot) {
+        // Note: counters are only written on the main thread.
+        if (previous.isCondition() != snapshot.isCondition()) {
+            this.conditionCount += snapshot.isCondition() ? 1 : -1;
+        }
+
+        if (previous.isWarmup() != snapshot.isWarmup()) {
+            this.warmupCount += snapshot.isWarmup() ? 1 : -1;
+        }
+
+        if (previous.isService() != snapshot.isService()) {
+            this.serviceCount += snapshot.isService() ? 1 : -1;
+        }
+
+        if (previous.isGrace() != snapshot.isGrace()) {
+            this.graceCount += snapshot.isGrace() ? 1 : -1;
+        }
+    }
+
+    /*
+     * Service state index section:
+     */
+
+    @Override
+    public int getConditionCount() {
+        return this.conditionCount;
+    }
+
+    @Override
+    public int getWarmupCount() {
+        return this.warmupCount;
+    }
+
+    @Override
+    public int getServiceCount() {
+        return this.serviceCount;
+    }
+
+    @Override
+    public int getGraceCount() {
+        return this.graceCount;
+    }
+
+    /**
+     * Returns the unique ids of all players in warmup, in the order they entered the warmup.
+     *
+     * <p>Note: The returned set is an unmodifiable view and must only be accessed on the main thread.</p>
+     *
+     * @return the players in warmup.
+     */
+    public @NotNull Set<UUID> getWarmups() {
+        return this.warmupView;
+    }
+
+    /**
+     * Returns the unique ids of all players in service, in the order they entered the service mode.
+     *
+     * <p>Note: The returned set is an unmodifiable view and must only be accessed on the main thread.</p>
+     *
+     * @return the players in service.
+     */
+    public @NotNull Set<UUID> getServices() {
+        return this.serviceView;
+    }
+
+    /**
+     * Returns the unique ids of all players in grace, in the order they entered the grace.
+     *
+     * <p>Note: The returned set is an unmodifiable view and must only be accessed on the main thread.</p>
+     *
+     * @return the players in grace.
+     */
+    public @NotNull Set<UUID> getGraces() {
+        return this.graceView;
+    }
+
+    /*
+     * Session leak detection section:
+     */
+
+    /**
+     * Detects sessions of players that are no longer online and tears them down.
+     *
+     * <p>Each detected session gets reported, as sessions are expected to be torn down when the player quits.
+     * Prepared sessions of players that never joined and cooldowns of players that quit get discarded silently.</p>
+     *
+     * @return the count of detected sessions.
+     */
+    public int detectLeaks() {
+        final Set<UUID> sessions = new HashSet<>(this.states.keySet());
+        int leaks = 0;
+
+        sessions.addAll(this.conditions);
+        sessions.addAll(this.warmups);
+        sessions.addAll(this.services);
+        sessions.addAll(this.graces);
+
+        for (final UUID uniqueId : sessions) {
+            if (this.instance.getServer().getPlayer(uniqueId) == null) {
+                this.instance.getLogger().warning("Detected session of player '" + uniqueId + "' that outlived the player. Tearing it down...");
+                this.removeState(uniqueId);
+                leaks++;
+            }
+        }
+
+        final long timeout = System.currentTimeMillis() - PREPARED_TIMEOUT;
+
+        this.prepared.values().removeIf(state -> state.getCreated() < timeout);
+        this.cooldowns.values().removeIf(cooldown -> cooldown <= timeout);
+        return leaks;
+    }
+
+    /*
+     * Session expiry section:
+     */
+
+    /**
+     * Detects service sessions that have expired and cooldowns that have ended.
+     *
+     * <p>The expiries of all sessions and cooldowns are kept in a single queue ordered by time, so that only the due
+     * expiries are touched. Expiries of sessions that ended before are skipped.</p>
+     *
+     * @return the count of expired sessions.
+     */
+    public int detectExpiries() {
+        final long now = System.currentTimeMillis();
+        int expired = 0;
+
+        while (!this.expiries.isEmpty() && this.expiries.peek().time <= now) {
+            final Expiry expiry = this.expiries.poll();
+            final PlayerState state = this.states.get(expiry.uniqueId);
+            final Player player = this.instance.getServer().getPlayer(expiry.uniqueId);
+
+            if (state == null || player == null) {
+                continue;
+            }
+
+            if (expiry.cooldown) {
+                if (state.getCooldown() == expiry.time) {
+                    // Cooldown has ended, perform a check to enter service again:
+                    state.setCooldown(0L);
+                    this.instance.runServiceCheck(player);
+                }
+
+                continue;
+            }
+
+            if (state.getExpiry() != expiry.time || !this.services.contains(expiry.uniqueId)) {
+                continue;
+            }
+
+            if (this.instance.getSettings().isDebug()) {
+                this.instance.getLogger().info(String.format("Service session of player '%s' has expired.", player.getName()));
+            }
+
+            final int period = this.instance.getSettings().getCooldownPeriod();
+
+            if (period > 0) {
+                state.setCooldown(now + period * 1000L);
+                this.expiries.add(new Expiry(expiry.uniqueId, state.getCooldown(), true));
+            }
+
+            player.sendMessage(period > 0 ? tl("service.expired", period) : tl("service.expired.no-cooldown"));
+            this.removeService(player);
+            expired++;
+        }
+
+        return expired;
+    }
+
+    /*
+     * Idle detection section:
+     */
+
+    /**
+     * Marks the given player as active, after it has moved or changed its held item.
+     *
+     * <p>Only the activity of players in condition gets tracked, as only these can enter service. Idle players are
+     * not checked for service until they are active again, so this is the only way to end the idle state.</p>
+     *
+     * @param player the player that is active.
+     */
+    public void markActive(@NotNull final Player player) {
+        if (!this.getSnapshot(player.getUniqueId()).isCondition()) {
+            return;
+        }
+
+        final PlayerState state = this.getState(player);
+
+        state.setActive(System.currentTimeMillis());
+
+        if (state.isIdle()) {
+            // Player is active again, perform a check to abort the grace or to enter service again:
+            state.setIdle(false);
+            this.instance.runServiceCheck(player);
+        }
+    }
+
+    /**
+     * Detects players in service that have been idle for longer than the idle period and moves them to grace.
+     *
+     * <p>Idle players stay idle until they are active again, see {@link #markActive(Player)}.</p>
+     *
+     * @return the count of detected idle players.
+     */
+    public int detectIdle() {
+        if (!this.instance.getSettings().isIdlePeriod() || this.services.isEmpty()) {
+            return 0;
+        }
+
+        final long timeout = System.currentTimeMillis() - this.instance.getSettings().getIdlePeriod() * 1000L;
+        List<UUID> changed = null;
+
+        // Collect the idle players first, as changing their state modifies the service set:
+        for (final UUID uniqueId : this.services) {
+            final PlayerState state = this.states.get(uniqueId);
+
+            if (state != null && state.getActive() < timeout && !state.isIdle() && !this.graces.contains(uniqueId)) {
+                if (changed == null) {
+                    changed = new ArrayList<>();
+                }
+
+                changed.add(uniqueId);
+            }
+        }
+
+        if (changed == null) {
+            return 0;
+        }
+
+        int idle = 0;
+
+        for (final UUID uniqueId : changed) {
+            final Player player = this.instance.getServer().getPlayer(uniqueId);
+
+            if (player == null) {
+                continue;
+            }
+
+            final PlayerState state = this.getState(player);
+
+            if (this.instance.getSettings().isDebug()) {
+                this.instance.getLogger().info(String.format("Player '%s' has been idle in service mode.", player.getName()));
+            }
+
+            state.setIdle(true);
+            player.sendMessage(tl("service.idle"));
+            idle++;
+
+            if (!this.addGrace(player, this.instance.getSettings().getGracePeriod())) {
+                this.removeService(player);
+            }
+        }
+
+        return idle;
+    }
+
+    /*
+     * Permission detection section:
+     */
+
+    /**
+     * Re-evaluates the permission dependent requirements and the service items of all online players.
+     *
+     * <p>Permission plugins do not notify about permission changes and inventories may be changed by commands or
+     * other plugins without any event, so both get re-evaluated with a single sweep. Players that are still in
+     * condition get checked for service with a rescan of their inventory.</p>
+     *
+     * @return the count of players in condition.
+     */
+    public int detectChanges() {
+        int checked = 0;
+
+        for (final Player player : this.instance.getServer().getOnlinePlayers()) {
+            final PlayerState state = this.getState(player);
+
+            // Only re-evaluate players that were already checked, joining players get checked on join:
+            if (state.getEvaluated() == 0) {
+                continue;
+            }
+
+            this.instance.getEngine().update(player, ConditionEngine.PERMISSION);
+
+            // Idle players get checked when they are active again, so that this sweep does not abort their grace:
+            if (state.isIdle()) {
+                continue;
+            }
+
+            // Players on cooldown get checked when their cooldown ends, so that they are not notified by this sweep:
+            if (state.getCooldown() > System.currentTimeMillis() && !this.services.contains(player.getUniqueId())) {
+                continue;
+            }
+
+            if (this.conditions.contains(player.getUniqueId())) {
+                this.instance.getTracker().markAll(player);
+                this.instance.runServiceCheck(player);
+                checked++;
+            }
+        }
+
+        return checked;
     }
 
     /*
@@ -205,4 +794,25 @@ public final class ServiceManager {
             player.sendMessage(message);
         }
     }
+
+    /**
+     * Expiry of a service session or cooldown, ordered by time.
+     */
+    private static final class Expiry implements Comparable<Expiry> {
+
+        private final UUID uniqueId;
+        private final long time;
+        private final boolean cooldown;
+
+        private Expiry(@NotNull final UUID uniqueId, final long time, final boolean cooldown) {
+            this.uniqueId = uniqueId;
+            this.time = time;
+            this.cooldown = cooldown;
+        }
+
+        @Override
+        public int compareTo(@NotNull final Expiry other) {
+            return Long.compare(this.time, other.time);
+        }
+    }
 }
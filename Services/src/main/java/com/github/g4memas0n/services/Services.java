@@ -18,11 +18,17 @@
 
 package com.github.g4memas0n.services;
 
+import com.github.g4memas0n.services.api.ServicesAPI;
+import com.github.g4memas0n.services.audit.SessionLog;
 import com.github.g4memas0n.services.command.ServicesCommand;
+import com.github.g4memas0n.services.condition.ConditionEngine;
 import com.github.g4memas0n.services.listener.ConditionListener;
 import com.github.g4memas0n.services.listener.FeatureListener;
+import com.github.g4memas0n.services.listener.InventoryListener;
 import com.github.g4memas0n.services.listener.ServiceListener;
+import com.github.g4memas0n.services.listener.WorldListener;
 import com.github.g4memas0n.services.config.Settings;
+import com.github.g4memas0n.services.sync.SyncManager;
 import com.github.g4memas0n.services.util.Messages;
 import com.github.g4memas0n.services.util.Registrable;
 import org.bukkit.Material;
@@ -30,18 +36,17 @@ import org.bukkit.World;
 import org.bukkit.World.Environment;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static com.github.g4memas0n.services.util.Messages.tl;
-import static com.github.g4memas0n.services.util.Messages.tlEnum;
 
 /**
  * The Services main class.
@@ -51,11 +56,40 @@ import static com.github.g4memas0n.services.util.Messages.tlEnum;
  */
 public final class Services extends JavaPlugin {
 
-    private final List<Registrable<Services>> registries;
+    /**
+     * The period in ticks, in that sessions of players that are no longer online get detected.
+     */
+    private static final long LEAK_PERIOD = 6000L;
+
+    /**
+     * The period in ticks, in that players that have been idle in service get detected.
+     */
+    private static final long IDLE_PERIOD = 20L;
 
-    private Map<UUID, BukkitTask> schedules;
+    /**
+     * The period in ticks, in that expired service sessions and ended cooldowns get detected.
+     */
+    private static final long EXPIRY_PERIOD = 20L;
+
+    /**
+     * The period in ticks, in that the permissions and the service items of all players get re-evaluated.
+     */
+    private static final long CHANGE_PERIOD = 100L;
+
+    /**
+     * The delay in milliseconds, after that a player on cooldown gets notified again about its remaining cooldown.
+     */
+    private static final long COOLDOWN_NOTICE = 15000L;
+
+    private final List<Registrable<Services>> registries;
 
     private ServiceManager manager;
+    private ConditionEngine engine;
+    private ItemTracker tracker;
+    private ItemVault vault;
+    private SessionLog audit;
+    private WorldRegistry worlds;
+    private SyncManager sync;
     private Settings settings;
     private Messages messages;
 
@@ -63,13 +97,37 @@ public final class Services extends JavaPlugin {
     private boolean enabled;
 
     public Services() {
-        this.registries = new ArrayList<>(4);
+        this.registries = new ArrayList<>(6);
     }
 
     public @NotNull ServiceManager getManager() {
         return this.manager;
     }
 
+    public @NotNull ConditionEngine getEngine() {
+        return this.engine;
+    }
+
+    public @NotNull ItemTracker getTracker() {
+        return this.tracker;
+    }
+
+    public @NotNull ItemVault getVault() {
+        return this.vault;
+    }
+
+    public @NotNull SessionLog getAudit() {
+        return this.audit;
+    }
+
+    public @NotNull WorldRegistry getWorlds() {
+        return this.worlds;
+    }
+
+    public @NotNull SyncManager getSync() {
+        return this.sync;
+    }
+
     public @NotNull Settings getSettings() {
         return this.settings;
     }
@@ -90,6 +148,12 @@ public final class Services extends JavaPlugin {
         this.messages = new Messages(this.getDataFolder(), this.getLogger());
         this.messages.setLocale(this.settings.getLocale());
         this.manager = new ServiceManager(this);
+        this.engine = new ConditionEngine(this);
+        this.tracker = new ItemTracker(this);
+        this.vault = new ItemVault(this);
+        this.audit = new SessionLog(this);
+        this.worlds = new WorldRegistry(this);
+        this.sync = new SyncManager(this);
         this.loaded = true;
     }
 
@@ -105,8 +169,9 @@ public final class Services extends JavaPlugin {
             this.onLoad();
         }
 
-        this.schedules = new HashMap<>();
         this.messages.enable();
+        this.vault.enable();
+        this.audit.enable();
 
         if (this.settings.isDebug()) {
             this.getLogger().info("Register plugin command and listeners...");
@@ -117,6 +182,8 @@ public final class Services extends JavaPlugin {
             this.registries.add(new ConditionListener());
             this.registries.add(new FeatureListener());
             this.registries.add(new ServiceListener());
+            this.registries.add(new WorldListener());
+            this.registries.add(new InventoryListener());
         }
 
         this.registries.forEach(registry -> registry.register(this));
@@ -125,6 +192,24 @@ public final class Services extends JavaPlugin {
             this.getLogger().info("Plugin command and listeners has been registered.");
         }
 
+        // Assign slots to all loaded worlds, later loaded worlds are registered by the world listener:
+        this.getServer().getWorlds().forEach(this.worlds::register);
+
+        this.getServer().getServicesManager().register(ServicesAPI.class, this.manager, this, ServicePriority.Normal);
+        this.sync.reload();
+
+        // Detect sessions that outlived their players, which would otherwise retain the tasks of the players:
+        this.getServer().getScheduler().runTaskTimer(this, this.manager::detectLeaks, LEAK_PERIOD, LEAK_PERIOD);
+
+        // Detect players that have been idle in service with a single sweep, instead of a task per player:
+        this.getServer().getScheduler().runTaskTimer(this, this.manager::detectIdle, IDLE_PERIOD, IDLE_PERIOD);
+
+        // Detect expired service sessions with a single sweep over the shared expiry queue:
+        this.getServer().getScheduler().runTaskTimer(this, this.manager::detectExpiries, EXPIRY_PERIOD, EXPIRY_PERIOD);
+
+        // Detect permission changes and inventory changes without events with a single sweep over all players:
+        this.getServer().getScheduler().runTaskTimer(this, this.manager::detectChanges, CHANGE_PERIOD, CHANGE_PERIOD);
+
         // Perform condition check for all online players:
         if (!this.getServer().getOnlinePlayers().isEmpty()) {
             this.getLogger().info("Check service conditions for all online players...");
@@ -143,6 +228,8 @@ public final class Services extends JavaPlugin {
         }
 
         this.getServer().getScheduler().cancelTasks(this);
+        this.getServer().getServicesManager().unregisterAll(this);
+        this.sync.close();
 
         if (this.settings.isDebug()) {
             this.getLogger().info("Unregister plugin command and listeners...");
@@ -154,11 +241,27 @@ public final class Services extends JavaPlugin {
             this.getLogger().info("Plugin command and listeners has been unregistered.");
         }
 
+        // Record the sessions of all players in service, as their sessions end with the plugin:
+        for (final UUID uniqueId : this.manager.getServices()) {
+            final Player player = this.getServer().getPlayer(uniqueId);
+
+            if (player != null) {
+                this.audit.record(player, this.manager.getState(player));
+            }
+        }
+
         this.messages.disable();
-        this.schedules = null;
+        this.vault.disable();
+        this.audit.disable();
         this.settings = null;
         this.messages = null;
         this.manager = null;
+        this.engine = null;
+        this.tracker = null;
+        this.vault = null;
+        this.audit = null;
+        this.worlds = null;
+        this.sync = null;
         this.enabled = false;
         this.loaded = false;
     }
@@ -167,6 +270,9 @@ public final class Services extends JavaPlugin {
     public void reloadConfig() {
         this.settings.load();
         this.messages.setLocale(this.settings.getLocale());
+        this.worlds.reload();
+        this.manager.invalidateItems();
+        this.sync.reload();
         this.registries.forEach(Registrable::reload);
 
         // Perform condition check for all online players:
@@ -193,7 +299,45 @@ public final class Services extends JavaPlugin {
     }
 
     /**
-     * Performs the condition check for the given player.
+     * Runs the given task for the given player on the next server tick.
+     *
+     * <p>Only the unique id of the player gets captured, so that the task does not retain the player after it
+     * quit. The task is skipped when the player is no longer online.</p>
+     *
+     * @param player the player to run the task for.
+     * @param task the task to run.
+     * @return the scheduled task.
+     */
+    public @NotNull BukkitTask runTask(@NotNull final Player player, @NotNull final Consumer<Player> task) {
+        return this.runTask(this.capture(player.getUniqueId(), task));
+    }
+
+    /**
+     * Schedules the given task for the given player.
+     *
+     * @param player the player to schedule the task for.
+     * @param task the task to schedule.
+     * @param delay the delay in ticks.
+     * @return the scheduled task.
+     * @see Services#runTask(Player, Consumer)
+     */
+    public @NotNull BukkitTask scheduleTask(@NotNull final Player player, @NotNull final Consumer<Player> task,
+                                            final long delay) {
+        return this.scheduleTask(this.capture(player.getUniqueId(), task), delay);
+    }
+
+    private @NotNull Runnable capture(@NotNull final UUID uniqueId, @NotNull final Consumer<Player> task) {
+        return () -> {
+            final Player player = this.getServer().getPlayer(uniqueId);
+
+            if (player != null) {
+                task.accept(player);
+            }
+        };
+    }
+
+    /**
+     * Performs the complete condition check for the given player.
      *
      * <p>A player must fulfill following requirements to be in condition:<br>
      * - The player has permission {@code services.service}<br>
@@ -202,106 +346,11 @@ public final class Services extends JavaPlugin {
      * - The player is in a registered service {@link Environment environment}</p>
      *
      * @param player the player to check for condition.
+     * @see ConditionEngine#update(Player, int)
      */
     public void runConditionCheck(@NotNull final Player player) {
-        this.schedules.remove(player.getUniqueId());
-
-        // Check for service permission and remove player from condition if it is not permitted.
-        if (!player.hasPermission("services.service")) {
-            if (this.settings.isDebug()) {
-                this.getLogger().info("Player '" + player.getName() + "' is missing permission for service mode.");
-            }
-
-            if (this.manager.removeCondition(player) && this.manager.removeService(player)) {
-                player.sendMessage(tl("service.denied"));
-            }
-
-            return;
-        }
-
-        if (this.settings.isServiceGameMode(player.getGameMode())) {
-            final World world = player.getWorld();
-
-            if (this.settings.isServiceWorld(world)) {
-                // Check for world permission and remove player from condition if it is not permitted:
-                if (this.settings.isPermissionPerWorld() && !player.hasPermission("services.world." + world.getName().toLowerCase())) {
-                    if (this.settings.isDebug()) {
-                        this.getLogger().info("Player '" + player.getName() + "' is missing permission for service world: " + world.getName());
-                    }
-
-                    if (this.manager.removeCondition(player) && this.manager.removeService(player)) {
-                        player.sendMessage(tl("service.denied.world", world.getName()));
-                    }
-
-                    return;
-                }
-
-                final Environment environment = world.getEnvironment();
-
-                if (this.settings.isServiceEnvironment(environment)) {
-                    // Check for environment permission and remove player from condition if it is not permitted:
-                    if (this.settings.isPermissionPerEnvironment() && !player.hasPermission("services.environment." + environment.name().toLowerCase())) {
-                        if (this.settings.isDebug()) {
-                            this.getLogger().info("Player '" + player.getName() + "' is missing permission for service environment: " + environment.name());
-                        }
-
-                        if (this.manager.removeCondition(player) && this.manager.removeService(player)) {
-                            player.sendMessage(tlEnum("service.denied.environment", environment));
-                        }
-
-                        return;
-                    }
-
-                    // Player is in a service game-mode, world and environment, add it to condition:
-                    if (this.manager.addCondition(player)) {
-                        if (this.settings.isDebug()) {
-                            this.getLogger().info("Player '" + player.getName() + "' is now in service world: " + world.getName() + " (environment: " + environment.name() + ")");
-                        }
-
-                        this.runServiceCheck(player);
-                    }
-
-                    return;
-                }
-
-                // Player is not in a service environment, remove it from condition:
-                if (this.manager.removeCondition(player)) {
-                    if (this.settings.isDebug()) {
-                        this.getLogger().info("Player '" + player.getName() + "' is now in non-service environment: " + environment.name());
-                    }
-
-                    if (this.manager.removeService(player)) {
-                        player.sendMessage(tlEnum("service.disabled.environment", environment));
-                    }
-                }
-
-                return;
-            }
-
-            // Player is not in a service world, remove it from condition:
-            if (this.manager.removeCondition(player)) {
-                if (this.settings.isDebug()) {
-                    this.getLogger().info("Player '" + player.getName() + "' is now in non-service world: " + world.getName());
-                }
-
-                if (this.manager.removeService(player)) {
-                    player.sendMessage(tl("service.disabled.world", world.getName()));
-                }
-            }
-
-            return;
-        }
-
-        // Player is not in a service game-mode, remove it from condition:
-        if (this.manager.removeCondition(player)) {
-            if (this.settings.isDebug()) {
-                this.getLogger().info("Player '" + player.getName() + "' is now in non-service game-mode: " + player.getGameMode().name());
-            }
-
-            if (this.manager.removeService(player)) {
-                player.sendMessage(tlEnum("service.disabled.game-mode", player.getGameMode()));
-            }
-        }
+        this.manager.getState(player).clearSchedule();
+        this.engine.update(player, ConditionEngine.ALL);
     }
 
     /**
@@ -311,22 +360,40 @@ public final class Services extends JavaPlugin {
      * @see Services#runConditionCheck(Player)
      */
     public void scheduleConditionCheck(@NotNull final Player player) {
-        // Cancel previous scheduled task, if existed:
-        if (this.schedules.containsKey(player.getUniqueId())) {
-            this.schedules.remove(player.getUniqueId()).cancel();
-        }
-
-        this.schedules.put(player.getUniqueId(), this.runTask(() -> this.runConditionCheck(player)));
+        // Cancels previous scheduled task, if existed:
+        this.manager.getState(player).setSchedule(this.runTask(player, this::runConditionCheck));
     }
 
     /**
      * Performs the service check for the given player with the item in the main hand.
      *
      * @param player the player to check for service.
-     * @see Services#runServiceCheck(Player, ItemStack)
+     * @see Services#runServiceCheck(Player, int, ItemStack)
      */
     public void runServiceCheck(@NotNull final Player player) {
-        this.runServiceCheck(player, player.getInventory().getItemInMainHand());
+        this.runServiceCheck(player, player.getInventory().getHeldItemSlot());
+    }
+
+    /**
+     * Performs the service check for the given player with the item in the given inventory slot.
+     *
+     * @param player the player to check for service.
+     * @param slot the inventory slot of the held item.
+     * @see Services#runServiceCheck(Player, int, ItemStack)
+     */
+    public void runServiceCheck(@NotNull final Player player, final int slot) {
+        this.runServiceCheck(player, slot, player.getInventory().getItem(slot));
+    }
+
+    /**
+     * Performs the service check for the given player with the given item, that is not located in the inventory.
+     *
+     * @param player the player to check for service.
+     * @param item the held item to check for.
+     * @see Services#runServiceCheck(Player, int, ItemStack)
+     */
+    public void runServiceCheck(@NotNull final Player player, @Nullable final ItemStack item) {
+        this.runServiceCheck(player, -1, item);
     }
 
     /**
@@ -335,17 +402,92 @@ public final class Services extends JavaPlugin {
      * <p>A player must fulfill following requirements to be in service:<br>
      * - The player is in {@link Services#runConditionCheck(Player) condition} for service<br>
      * - The player holds a registered service {@link Material item} in the main hand<br>
+     * - Or, if service items anywhere are enabled, the player carries a service item anywhere in the inventory<br>
+     * - Or, if other service slots are enabled, the player carries a service item in any service slot</p>
      *
      * @param player the player to check for service.
+     * @param slot the inventory slot of the held item or -1 if the item is not located in the inventory.
      * @param item the held item to check for.
      * @see Services#runConditionCheck(Player)
      */
-    public void runServiceCheck(@NotNull final Player player, @Nullable final ItemStack item) {
-        this.schedules.remove(player.getUniqueId());
+    public void runServiceCheck(@NotNull final Player player, final int slot, @Nullable final ItemStack item) {
+        this.manager.getState(player).clearSchedule();
 
         // Only perform check when player is in condition:
         if (this.manager.isCondition(player)) {
-            if (item != null && this.settings.isServiceItem(item.getType())) {
+            final PlayerState state = this.manager.getState(player);
+
+            // Player has been idle, keep it in grace or out of service until it is active again:
+            if (state.isIdle()) {
+                return;
+            }
+
+            // Player is on cooldown after its last session has expired, reject re-entering service:
+            if (state.getCooldown() > 0L && !this.manager.isService(player)) {
+                final long now = System.currentTimeMillis();
+
+                if (state.getCooldown() > now) {
+                    // Notify the player only once in a while, as every held item change triggers a check:
+                    if (state.getNotified() + COOLDOWN_NOTICE <= now) {
+                        final long remaining = (state.getCooldown() - now + 999L) / 1000L;
+
+                        if (this.settings.isDebug()) {
+                            this.getLogger().info(String.format("Player '%s' is on cooldown for %d seconds.", player.getName(), remaining));
+                        }
+
+                        player.sendMessage(tl("service.cooldown", remaining));
+                        state.setNotified(now);
+                    }
+
+                    return;
+                }
+
+                state.setCooldown(0L);
+            }
+
+            if (this.tracker.isEnabled()) {
+                final long mask = this.tracker.getMask(player, slot);
+
+                // Player carries a permitted service item in a service slot, add it to service:
+                if (this.tracker.hasServiceItem(player, mask)) {
+                    if (this.settings.isAuditLog()) {
+                        for (long remaining = state.getItems() & mask; remaining != 0L; remaining &= remaining - 1) {
+                            final ItemStack used = player.getInventory().getItem(Long.numberOfTrailingZeros(remaining));
+
+                            if (used != null) {
+                                state.addUsed(used.getType());
+                            }
+                        }
+                    }
+
+                    if (this.settings.isWarmupPeriod() && !player.hasPermission("services.bypass.warmup")
+                            && !state.isHandoff()) {
+                        this.manager.addWarmup(player, this.settings.getWarmupPeriod());
+                        return;
+                    }
+
+                    this.manager.addService(player);
+                    return;
+                }
+
+                // Player is not carrying any service items, remove it from service:
+                if (this.manager.isWarmup(player) || this.manager.isService(player)) {
+                    if (this.settings.isDebug() && !this.manager.isGrace(player)) {
+                        this.getLogger().info("Player '" + player.getName() + "' is no longer carrying service items in service slots.");
+                    }
+
+                    if (this.settings.isGracePeriod() && !player.hasPermission("services.bypass.grace")) {
+                        this.manager.addGrace(player, this.settings.getGracePeriod());
+                        return;
+                    }
+
+                    this.manager.removeService(player);
+                }
+
+                return;
+            }
+
+            if (item != null && this.isServiceItem(player, slot, item)) {
                 // Check for permission and remove player from service if it is not permitted:
                 if (this.settings.isPermissionPerItem() && !player.hasPermission("services.item." + item.getType().getKey().getKey())) {
                     if (this.settings.isDebug()) {
@@ -366,7 +508,10 @@ public final class Services extends JavaPlugin {
                 }
 
                 // Player is using a service item, add it to service:
-                if (this.settings.isWarmupPeriod() && !player.hasPermission("services.bypass.warmup")) {
+                state.addUsed(item.getType());
+
+                if (this.settings.isWarmupPeriod() && !player.hasPermission("services.bypass.warmup")
+                        && !state.isHandoff()) {
                     this.manager.addWarmup(player, this.settings.getWarmupPeriod());
                     return;
                 }
@@ -393,6 +538,35 @@ public final class Services extends JavaPlugin {
         }
     }
 
+    /**
+     * Returns whether the given item in the given inventory slot of the player is a service item.
+     *
+     * <p>If the service item rules of the material of the item depend on its metadata, the verdict is cached per
+     * inventory slot, so that the item meta is only read again when the inventory of the player has changed or when
+     * the whole inventory gets {@link ItemTracker#markAll(Player) rescanned}.</p>
+     *
+     * @param player the player that holds the item.
+     * @param slot the inventory slot of the item or -1 if the item is not located in the inventory.
+     * @param item the item to check.
+     * @return true if the item is a service item.
+     */
+    public boolean isServiceItem(@NotNull final Player player, final int slot, @NotNull final ItemStack item) {
+        if (slot < 0 || slot >= PlayerState.SLOTS || !this.settings.isServiceItemMeta(item.getType())) {
+            return this.settings.isServiceItem(item);
+        }
+
+        final PlayerState state = this.manager.getState(player);
+        // Note: the fingerprint never touches the metadata, as even checking for metadata clones it. Changes of the
+        // metadata invalidate the cached verdicts from the inventory events and the periodic rescans instead.
+        final int fingerprint = (item.getType().ordinal() + 1) << 8 | (item.getAmount() & 0xFF);
+
+        if (state.getFingerprint(slot) != fingerprint) {
+            state.setVerdict(slot, fingerprint, this.settings.isServiceItem(item));
+        }
+
+        return state.getVerdict(slot);
+    }
+
     /**
      * Schedules the service check for the given player with the item in the main hand.
      *
@@ -400,11 +574,7 @@ public final class Services extends JavaPlugin {
      * @see Services#runServiceCheck(Player, ItemStack)
      */
     public void scheduleServiceCheck(@NotNull final Player player) {
-        // Cancel previous scheduled task, if existed:
-        if (this.schedules.containsKey(player.getUniqueId())) {
-            this.schedules.remove(player.getUniqueId()).cancel();
-        }
-
-        this.schedules.put(player.getUniqueId(), this.runTask(() -> this.runServiceCheck(player)));
+        // Cancels previous scheduled task, if existed:
+        this.manager.getState(player).setSchedule(this.runTask(player, this::runServiceCheck));
     }
 }
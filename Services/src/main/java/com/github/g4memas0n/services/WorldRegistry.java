@@ -0,0 +1,340 @@
+package com.github.g4memas0n.services;
+
+import com.github.g4memas0n.services.config.ZoneIndex;
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.Permission;
+import org.bukkit.potion.PotionEffectType;
+import org.jetbrains.annotations.NotNull;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * World Registry, that assigns each loaded world a slot and caches the service decisions per world slot.
+ *
+ * <p>Worlds get registered and unregistered as they are loaded and unloaded, so that worlds matching the configured
+ * service world names or patterns are supported without reloading. All lookups are performed by world identity.</p>
+ *
+ * <p>Each slot has a precomputed service bit, that is set when the world of the slot is a service world and a
+ * service environment. This permission independent bit is tested first, so that non-service worlds never require a
+ * permission check. The allowed slots of a player, including the world and environment permissions, are cached
+ * as mask in the {@link PlayerState} of the player and are evaluated lazily per slot, so that the world requirement
+ * of the {@link com.github.g4memas0n.services.condition.ConditionEngine} is reduced to a single bit test when the
+ * player changes the world.</p>
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class WorldRegistry {
+
+    /**
+     * The maximum count of slots. Worlds that get loaded while all slots are in use will be checked without cache.
+     */
+    private static final int SLOTS = Long.SIZE;
+
+    private static final String[] ENVIRONMENTS;
+
+    static {
+        final Environment[] environments = Environment.values();
+
+        ENVIRONMENTS = new String[environments.length];
+
+        for (final Environment environment : environments) {
+            ENVIRONMENTS[environment.ordinal()] = "services.environment." + environment.name().toLowerCase();
+        }
+    }
+
+    private final Map<World, Integer> slots;
+    private final World[] worlds;
+    private final String[] permissions;
+    private final BitSet[] effects;
+    private final Map<Long, ZoneIndex.Cell>[] zones;
+
+    private final Services instance;
+
+    private long services;
+    private long serviceWorlds;
+    private long used;
+    private int generation;
+
+    public WorldRegistry(@NotNull final Services instance) {
+        this.slots = new IdentityHashMap<>();
+        this.worlds = new World[SLOTS];
+        this.permissions = new String[SLOTS];
+        this.effects = new BitSet[SLOTS];
+        this.zones = createZones();
+
+        this.instance = instance;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static @NotNull Map<Long, ZoneIndex.Cell>[] createZones() {
+        return (Map<Long, ZoneIndex.Cell>[]) new Map<?, ?>[SLOTS];
+    }
+
+    /*
+     * World register/unregister section:
+     */
+
+    public boolean register(@NotNull final World world) {
+        if (this.slots.containsKey(world)) {
+            return false;
+        }
+
+        if (this.used == -1L) {
+            this.instance.getLogger().warning("Unable to assign slot to world '" + world.getName() + "': All slots are in use.");
+            return false;
+        }
+
+        final int slot = Long.numberOfTrailingZeros(~this.used);
+
+        this.slots.put(world, slot);
+        this.worlds[slot] = world;
+        this.permissions[slot] = "services.world." + world.getName().toLowerCase();
+        this.used |= 1L << slot;
+        this.update(slot);
+        this.updateWildcard();
+        this.generation++;
+
+        if (this.instance.getSettings().isDebug()) {
+            this.instance.getLogger().info(String.format("Assigned slot %d to %s world: %s", slot,
+                    (this.serviceWorlds & (1L << slot)) != 0L ? "service" : "non-service", world.getName()));
+        }
+
+        return true;
+    }
+
+    public boolean unregister(@NotNull final World world) {
+        final Integer slot = this.slots.remove(world);
+
+        if (slot == null) {
+            return false;
+        }
+
+        this.worlds[slot] = null;
+        this.permissions[slot] = null;
+        this.effects[slot] = null;
+        this.zones[slot] = null;
+        this.used &= ~(1L << slot);
+        this.services &= ~(1L << slot);
+        this.serviceWorlds &= ~(1L << slot);
+        this.updateWildcard();
+        this.generation++;
+
+        if (this.instance.getSettings().isDebug()) {
+            this.instance.getLogger().info(String.format("Released slot %d of world: %s", slot, world.getName()));
+        }
+
+        return true;
+    }
+
+    /**
+     * Recomputes the service bits, disabled effects and service zones of all slots and invalidates the cached slot
+     * masks of all players.
+     */
+    public void reload() {
+        this.services = 0L;
+        this.serviceWorlds = 0L;
+
+        for (long remaining = this.used; remaining != 0L; remaining &= remaining - 1) {
+            this.update(Long.numberOfTrailingZeros(remaining));
+        }
+
+        this.updateWildcard();
+        this.generation++;
+    }
+
+    private void update(final int slot) {
+        final World world = this.worlds[slot];
+
+        this.effects[slot] = this.instance.getSettings().getDisabledEffects(world);
+        this.zones[slot] = this.instance.getSettings().getServiceZones(world);
+
+        if (this.instance.getSettings().isServiceWorld(world)) {
+            this.serviceWorlds |= 1L << slot;
+
+            if (this.instance.getSettings().isServiceEnvironment(world.getEnvironment())) {
+                this.services |= 1L << slot;
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the children of the {@code services.world.*} permission from the world permissions of all service
+     * worlds, so that worlds that were unloaded or are no longer service worlds are no longer granted.
+     */
+    private void updateWildcard() {
+        final Permission wildcard = this.instance.getServer().getPluginManager().getPermission("services.world.*");
+
+        if (wildcard == null) {
+            return;
+        }
+
+        final Map<String, Boolean> children = new HashMap<>();
+
+        for (long remaining = this.serviceWorlds; remaining != 0L; remaining &= remaining - 1) {
+            children.put(this.permissions[Long.numberOfTrailingZeros(remaining)], true);
+        }
+
+        // Only recalculate the permissions of all players, when the children have changed:
+        if (!wildcard.getChildren().equals(children)) {
+            wildcard.getChildren().clear();
+            wildcard.getChildren().putAll(children);
+            wildcard.recalculatePermissibles();
+        }
+    }
+
+    /**
+     * Returns the slot of the given world.
+     *
+     * @param world the world to get the slot for.
+     * @return the slot of the world or -1 if the world has no slot assigned.
+     */
+    public int getSlot(@NotNull final World world) {
+        final Integer slot = this.slots.get(world);
+
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * Returns whether the given potion effect type is disabled for players in service in the given world.
+     *
+     * @param world the world to check.
+     * @param type the potion effect type to check.
+     * @return true if the potion effect type is disabled.
+     */
+    @SuppressWarnings("deprecation")
+    public boolean isDisabledEffect(@NotNull final World world, @NotNull final PotionEffectType type) {
+        final Integer slot = this.slots.get(world);
+
+        if (slot == null) {
+            return this.instance.getSettings().getDisabledEffects(world).get(type.getId());
+        }
+
+        return this.effects[slot].get(type.getId());
+    }
+
+    /*
+     * Service world decision section:
+     */
+
+    /**
+     * Returns whether the given world is a service world.
+     *
+     * @param world the world to check.
+     * @return true if the world is a service world.
+     */
+    public boolean isServiceWorld(@NotNull final World world) {
+        final Integer slot = this.slots.get(world);
+
+        if (slot == null) {
+            return this.instance.getSettings().isServiceWorld(world);
+        }
+
+        return (this.serviceWorlds & (1L << slot)) != 0L;
+    }
+
+    /**
+     * Returns whether the last evaluated block position of the given player belongs to a service zone.
+     *
+     * <p>This also marks whether the chunk of the player requires an exact test on each block change, as it only
+     * partially belongs to a service zone.</p>
+     *
+     * @param world the world of the player.
+     * @param state the state of the player.
+     * @return true if the position belongs to a service zone or if service is not limited to zones in the world.
+     * @see PlayerState#getChunk()
+     */
+    public boolean isServiceZone(@NotNull final World world, @NotNull final PlayerState state) {
+        final Integer slot = this.slots.get(world);
+        final Map<Long, ZoneIndex.Cell> zones = slot != null ? this.zones[slot] : this.instance.getSettings().getServiceZones(world);
+
+        if (zones == null) {
+            state.setExact(false);
+            return true;
+        }
+
+        final ZoneIndex.Cell cell = zones.get(state.getChunk());
+
+        state.setExact(cell != null && !cell.isFull());
+
+        return cell != null && cell.contains(state.getBlockX(), state.getBlockY(), state.getBlockZ());
+    }
+
+    /**
+     * Returns whether the given player is allowed to use service in the given world.
+     *
+     * <p>A player is allowed to use service in a world when the world is a service world and a service environment
+     * and when the player has the world and environment permission, if these are enabled.</p>
+     *
+     * @param player the player to check.
+     * @param world the world to check.
+     * @return true if the player is allowed to use service in the world.
+     */
+    public boolean isAllowed(@NotNull final Player player, @NotNull final World world) {
+        final Integer slot = this.slots.get(world);
+
+        if (slot == null) {
+            // World has no slot assigned, perform uncached check:
+            return this.isServiceWorld(world) && this.instance.getSettings().isServiceEnvironment(world.getEnvironment())
+                    && this.isPermitted(player, world);
+        }
+
+        // Permission independent check, whether the world is a service world and a service environment:
+        if ((this.services & (1L << slot)) == 0L) {
+            return false;
+        }
+
+        final PlayerState state = this.instance.getManager().getState(player);
+
+        if (state.getGeneration() != this.generation) {
+            state.resetWorlds(this.generation);
+        }
+
+        if ((state.getKnownWorlds() & (1L << slot)) == 0L) {
+            state.setWorld(slot, this.isPermitted(player, world));
+        }
+
+        return (state.getWorlds() & (1L << slot)) != 0L;
+    }
+
+    private boolean isPermitted(@NotNull final Player player, @NotNull final World world) {
+        if (this.instance.getSettings().isPermissionPerWorld() && !this.hasWorldPermission(player, world)) {
+            return false;
+        }
+
+        return !this.instance.getSettings().isPermissionPerEnvironment()
+                || this.hasEnvironmentPermission(player, world.getEnvironment());
+    }
+
+    /**
+     * Returns whether the given player has the world permission of the given world.
+     *
+     * @param player the player to check.
+     * @param world the world to check.
+     * @return true if the player has permission {@code services.world.<world>}.
+     */
+    public boolean hasWorldPermission(@NotNull final Player player, @NotNull final World world) {
+        final Integer slot = this.slots.get(world);
+
+        if (slot == null) {
+            return player.hasPermission("services.world." + world.getName().toLowerCase());
+        }
+
+        return player.hasPermission(this.permissions[slot]);
+    }
+
+    /**
+     * Returns whether the given player has the environment permission of the given environment.
+     *
+     * @param player the player to check.
+     * @param environment the environment to check.
+     * @return true if the player has permission {@code services.environment.<environment>}.
+     */
+    public boolean hasEnvironmentPermission(@NotNull final Player player, @NotNull final Environment environment) {
+        return player.hasPermission(ENVIRONMENTS[environment.ordinal()]);
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.g4memas0n.services.api;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Service Snapshot, that represents the immutable service state of a player at the time of the last state change.
+ *
+ * <p>Snapshots are replaced on each state change and are returned by {@link ServicesAPI#getSnapshot(java.util.UUID)}.
+ * They can safely be read from any thread. As there are only a few combinations of states, all snapshots are shared
+ * instances.</p>
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class ServiceSnapshot {
+
+    private static final int CONDITION = 1;
+    private static final int WARMUP = 1 << 1;
+    private static final int SERVICE = 1 << 2;
+    private static final int GRACE = 1 << 3;
+
+    private static final ServiceSnapshot[] SNAPSHOTS;
+
+    /**
+     * The snapshot of players that are not in condition, warmup, service or grace.
+     */
+    public static final ServiceSnapshot NONE;
+
+    static {
+        SNAPSHOTS = new ServiceSnapshot[GRACE << 1];
+
+        for (int flags = 0; flags < SNAPSHOTS.length; flags++) {
+            SNAPSHOTS[flags] = new ServiceSnapshot(flags);
+        }
+
+        NONE = SNAPSHOTS[0];
+    }
+
+    private final int flags;
+
+    private ServiceSnapshot(final int flags) {
+        this.flags = flags;
+    }
+
+    public static @NotNull ServiceSnapshot of(final boolean condition, final boolean warmup,
+                                              final boolean service, final boolean grace) {
+        return SNAPSHOTS[(condition ? CONDITION : 0) | (warmup ? WARMUP : 0) | (service ? SERVICE : 0) | (grace ? GRACE : 0)];
+    }
+
+    public boolean isCondition() {
+        return (this.flags & CONDITION) != 0;
+    }
+
+    public boolean isWarmup() {
+        return (this.flags & WARMUP) != 0;
+    }
+
+    public boolean isService() {
+        return (this.flags & SERVICE) != 0;
+    }
+
+    public boolean isGrace() {
+        return (this.flags & GRACE) != 0;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return this.getClass().getSimpleName()
+                + "{condition=" + this.isCondition()
+                + ";warmup=" + this.isWarmup()
+                + ";service=" + this.isService()
+                + ";grace=" + this.isGrace()
+                + "}";
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.g4memas0n.services.api;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import java.util.UUID;
+
+/**
+ * The public API of this plugin, that allows other plugins to query the service state of players.
+ *
+ * <p>The API is registered as service provider and can be obtained with:<br>
+ * {@code Bukkit.getServicesManager().load(ServicesAPI.class)}</p>
+ *
+ * <p>All queries can safely be called from any thread. To get notified about service state changes, listen for the
+ * events of the {@link com.github.g4memas0n.services.api.event} package instead of polling the state.</p>
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public interface ServicesAPI {
+
+    /**
+     * Returns whether the given player fulfills the conditions for service, like the service world.
+     *
+     * @param player the player to check.
+     * @return true if the player is in condition for service.
+     */
+    boolean isCondition(@NotNull final Player player);
+
+    boolean isCondition(@NotNull final UUID uniqueId);
+
+    /**
+     * Returns whether the given player is in warmup, before the service mode gets enabled.
+     *
+     * @param player the player to check.
+     * @return true if the player is in warmup.
+     */
+    boolean isWarmup(@NotNull final Player player);
+
+    boolean isWarmup(@NotNull final UUID uniqueId);
+
+    /**
+     * Returns whether the given player is in service mode.
+     *
+     * @param player the player to check.
+     * @return true if the player is in service mode.
+     */
+    boolean isService(@NotNull final Player player);
+
+    boolean isService(@NotNull final UUID uniqueId);
+
+    /**
+     * Returns whether the given player is in grace, before the service mode gets disabled.
+     *
+     * @param player the player to check.
+     * @return true if the player is in grace.
+     */
+    boolean isGrace(@NotNull final Player player);
+
+    boolean isGrace(@NotNull final UUID uniqueId);
+
+    /**
+     * Returns the snapshot of the service state of the player with the given unique id.
+     *
+     * @param uniqueId the unique id of the player.
+     * @return the snapshot of the service state of the player.
+     */
+    @NotNull ServiceSnapshot getSnapshot(@NotNull final UUID uniqueId);
+
+    /**
+     * Returns the count of players that are in condition for service.
+     *
+     * @return the count of players in condition.
+     */
+    int getConditionCount();
+
+    /**
+     * Returns the count of players that are in warmup.
+     *
+     * @return the count of players in warmup.
+     */
+    int getWarmupCount();
+
+    /**
+     * Returns the count of players that are in service mode, including the players in grace.
+     *
+     * @return the count of players in service mode.
+     */
+    int getServiceCount();
+
+    /**
+     * Returns the count of players that are in grace.
+     *
+     * @return the count of players in grace.
+     */
+    int getGraceCount();
+}
@@ -0,0 +1,29 @@
+package com.github.g4memas0n.services.api.event;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Event that gets called when the service mode of a player gets disabled.
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class ServiceDisableEvent extends ServicePlayerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    public ServiceDisableEvent(@NotNull final Player player) {
+        super(player);
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static @NotNull HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
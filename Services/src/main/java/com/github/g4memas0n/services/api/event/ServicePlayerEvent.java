@@ -0,0 +1,31 @@
+package com.github.g4memas0n.services.api.event;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Abstract Representation of an event that gets called when the service state of a player changes.
+ *
+ * <p>Note: These events are only called when at least one listener is registered for them.</p>
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public abstract class ServicePlayerEvent extends PlayerEvent {
+
+    protected ServicePlayerEvent(@NotNull final Player player) {
+        super(player);
+    }
+
+    /**
+     * Returns whether any listener is registered to the given handler list.
+     *
+     * @param handlers the handler list of an event.
+     * @return true if the event has registered listeners.
+     */
+    public static boolean isListened(@NotNull final HandlerList handlers) {
+        return handlers.getRegisteredListeners().length > 0;
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.g4memas0n.services.api.event;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Event that gets called when a player starts the warmup, before the service mode gets enabled.
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class WarmupStartEvent extends ServicePlayerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final long period;
+
+    public WarmupStartEvent(@NotNull final Player player, final long period) {
+        super(player);
+
+        this.period = period;
+    }
+
+    /**
+     * Returns the period in seconds, after that the service mode gets enabled.
+     *
+     * @return the period in seconds.
+     */
+    public long getPeriod() {
+        return this.period;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static @NotNull HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
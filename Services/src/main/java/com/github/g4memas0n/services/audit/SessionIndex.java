@@ -0,0 +1,397 @@
+package com.github.g4memas0n.services.audit;
+
+import org.bukkit.event.entity.EntityDamageEvent.DamageCause;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Session Index, that aggregates the recorded service sessions by player and day.
+ *
+ * <p>The index is held in memory, so that history queries over long periods only touch the aggregated days of the
+ * queried players instead of the raw session logs. The aggregates of all rotated log files are persisted to a binary
+ * index file, so that only the current log file and newly rotated files need to be read when the index gets loaded.</p>
+ *
+ * <p>Note: This index is not thread-safe and must only be accessed by the writer thread of the {@link SessionLog}.</p>
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class SessionIndex {
+
+    private static final int VERSION = 1;
+
+    private static final DamageCause[] CAUSES = DamageCause.values();
+
+    private final Map<UUID, NavigableMap<Long, Day>> players;
+    private final Map<UUID, Causes> causes;
+    private final Map<UUID, String> names;
+    private final Map<String, UUID> lookup;
+    private final Set<String> indexed;
+    private final ZoneId zone;
+
+    public SessionIndex() {
+        this.players = new HashMap<>();
+        this.causes = new HashMap<>();
+        this.names = new HashMap<>();
+        this.lookup = new HashMap<>();
+        this.indexed = new HashSet<>();
+        this.zone = ZoneId.systemDefault();
+    }
+
+    /**
+     * Returns the day of the given time, in the default time-zone of the server.
+     *
+     * @param time the time in milliseconds.
+     * @return the epoch day of the time.
+     */
+    public long getDay(final long time) {
+        return Instant.ofEpochMilli(time).atZone(this.zone).toLocalDate().toEpochDay();
+    }
+
+    public long getToday() {
+        return LocalDate.now(this.zone).toEpochDay();
+    }
+
+    /**
+     * Adds the given record to the aggregates of its player and start day.
+     *
+     * @param record the record to add.
+     */
+    public void add(@NotNull final SessionRecord record) {
+        this.add(record.getUniqueId(), record.getName(), this.getDay(record.getStart()), 1,
+                record.getDuration(), record.getDamage());
+
+        final Causes causes = this.causes.computeIfAbsent(record.getUniqueId(), key -> new Causes());
+
+        for (int index = 0; index < CAUSES.length; index++) {
+            causes.damage[index] += record.getCauses()[index];
+            causes.hits[index] += record.getHits()[index];
+        }
+    }
+
+    private void add(@NotNull final UUID uniqueId, @NotNull final String name, final long day,
+                     final int sessions, final long duration, final double damage) {
+        final Day aggregate = this.players.computeIfAbsent(uniqueId, key -> new TreeMap<>())
+                .computeIfAbsent(day, key -> new Day());
+
+        aggregate.sessions += sessions;
+        aggregate.duration += duration;
+        aggregate.damage += damage;
+
+        final String previous = this.names.put(uniqueId, name);
+
+        if (previous != null && !previous.equalsIgnoreCase(name)) {
+            this.lookup.remove(previous.toLowerCase());
+        }
+
+        this.lookup.put(name.toLowerCase(), uniqueId);
+    }
+
+    /**
+     * Returns the unique id of the player with the given name, that has recorded sessions.
+     *
+     * @param name the name of the player.
+     * @return the unique id of the player or null if the player has no recorded sessions.
+     */
+    public @Nullable UUID getUniqueId(@NotNull final String name) {
+        return this.lookup.get(name.toLowerCase());
+    }
+
+    public @NotNull String getName(@NotNull final UUID uniqueId) {
+        final String name = this.names.get(uniqueId);
+
+        return name != null ? name : uniqueId.toString();
+    }
+
+    /**
+     * Returns a copy of the aggregated days of the given player, starting from the given day.
+     *
+     * @param uniqueId the unique id of the player.
+     * @param from the first epoch day to include.
+     * @return the aggregated days by epoch day, which may be empty.
+     */
+    public @NotNull NavigableMap<Long, Day> getDays(@NotNull final UUID uniqueId, final long from) {
+        final NavigableMap<Long, Day> days = this.players.get(uniqueId);
+        final NavigableMap<Long, Day> copies = new TreeMap<>();
+
+        if (days != null) {
+            for (final Map.Entry<Long, Day> entry : days.tailMap(from, true).entrySet()) {
+                copies.put(entry.getKey(), new Day(entry.getValue()));
+            }
+        }
+
+        return copies;
+    }
+
+    /**
+     * Returns a copy of the prevented damage by cause of all recorded sessions of the given player.
+     *
+     * @param uniqueId the unique id of the player.
+     * @return the prevented damage by cause, which may be empty.
+     */
+    public @NotNull Causes getCauses(@NotNull final UUID uniqueId) {
+        final Causes causes = this.causes.get(uniqueId);
+
+        return causes != null ? new Causes(causes) : new Causes();
+    }
+
+    /**
+     * Returns the players with the longest total service duration, starting from the given day.
+     *
+     * @param from the first epoch day to include.
+     * @param limit the maximum count of players to return.
+     * @return the aggregated totals by player unique id, ordered by descending duration.
+     */
+    public @NotNull List<Map.Entry<UUID, Day>> getTop(final long from, final int limit) {
+        final List<Map.Entry<UUID, Day>> totals = new ArrayList<>();
+
+        for (final Map.Entry<UUID, NavigableMap<Long, Day>> entry : this.players.entrySet()) {
+            final Day total = new Day();
+
+            for (final Day day : entry.getValue().tailMap(from, true).values()) {
+                total.sessions += day.sessions;
+                total.duration += day.duration;
+                total.damage += day.damage;
+            }
+
+            if (total.sessions > 0) {
+                totals.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), total));
+            }
+        }
+
+        totals.sort((first, second) -> Long.compare(second.getValue().duration, first.getValue().duration));
+
+        return totals.size() > limit ? new ArrayList<>(totals.subList(0, limit)) : totals;
+    }
+
+    /*
+     * Index load/save section:
+     */
+
+    public boolean isIndexed(@NotNull final File file) {
+        return this.indexed.contains(file.getName());
+    }
+
+    /**
+     * Marks the given rotated log file as indexed, so that it will not be read again when the index gets loaded.
+     *
+     * @param file the rotated log file, whose records were added.
+     */
+    public void markIndexed(@NotNull final File file) {
+        this.indexed.add(file.getName());
+    }
+
+    /**
+     * Reads all records of the given log file and adds them to this index.
+     *
+     * @param file the log file to read.
+     * @return the count of added records.
+     * @throws IOException if the file could not be read.
+     */
+    public int read(@NotNull final File file) throws IOException {
+        int count = 0;
+
+        try (BufferedReader input = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+
+            while ((line = input.readLine()) != null) {
+                final SessionRecord record = SessionRecord.decode(line);
+
+                if (record != null) {
+                    this.add(record);
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Loads the aggregates of all indexed log files from the given index file.
+     *
+     * @param file the index file to load.
+     * @throws IOException if the file could not be read.
+     */
+    public void load(@NotNull final File file) throws IOException {
+        if (!file.isFile()) {
+            return;
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != VERSION) {
+                throw new IOException("Unsupported index version");
+            }
+
+            for (int files = input.readInt(); files > 0; files--) {
+                this.indexed.add(input.readUTF());
+            }
+
+            for (int players = input.readInt(); players > 0; players--) {
+                final UUID uniqueId = new UUID(input.readLong(), input.readLong());
+                final String name = input.readUTF();
+
+                for (int days = input.readInt(); days > 0; days--) {
+                    this.add(uniqueId, name, input.readLong(), input.readInt(), input.readLong(), input.readDouble());
+                }
+
+                final Causes causes = this.causes.computeIfAbsent(uniqueId, key -> new Causes());
+
+                // Note: causes are stored by name, as the ordinals may change between server versions.
+                for (int count = input.readInt(); count > 0; count--) {
+                    final String cause = input.readUTF();
+                    final int hits = input.readInt();
+                    final double damage = input.readDouble();
+
+                    try {
+                        final int ordinal = DamageCause.valueOf(cause).ordinal();
+
+                        causes.hits[ordinal] += hits;
+                        causes.damage[ordinal] += damage;
+                    } catch (IllegalArgumentException ignored) {
+                        // Damage cause does not exist in this server version.
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Saves the aggregates of this index to the given index file.
+     *
+     * <p>Note: The aggregates of the current log file must be excluded, as the current log file is read again when
+     * the index gets loaded. So this index must only be saved directly after the current log file was rotated.</p>
+     *
+     * @param file the index file to save to.
+     * @throws IOException if the file could not be written.
+     */
+    public void save(@NotNull final File file) throws IOException {
+        final File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            output.writeInt(VERSION);
+            output.writeInt(this.indexed.size());
+
+            for (final String name : this.indexed) {
+                output.writeUTF(name);
+            }
+
+            output.writeInt(this.players.size());
+
+            for (final Map.Entry<UUID, NavigableMap<Long, Day>> entry : this.players.entrySet()) {
+                output.writeLong(entry.getKey().getMostSignificantBits());
+                output.writeLong(entry.getKey().getLeastSignificantBits());
+                output.writeUTF(this.getName(entry.getKey()));
+                output.writeInt(entry.getValue().size());
+
+                for (final Map.Entry<Long, Day> day : entry.getValue().entrySet()) {
+                    output.writeLong(day.getKey());
+                    output.writeInt(day.getValue().sessions);
+                    output.writeLong(day.getValue().duration);
+                    output.writeDouble(day.getValue().damage);
+                }
+
+                final Causes causes = this.causes.getOrDefault(entry.getKey(), new Causes());
+                int count = 0;
+
+                for (final int hits : causes.hits) {
+                    count += hits > 0 ? 1 : 0;
+                }
+
+                output.writeInt(count);
+
+                for (int index = 0; index < CAUSES.length; index++) {
+                    if (causes.hits[index] > 0) {
+                        output.writeUTF(CAUSES[index].name());
+                        output.writeInt(causes.hits[index]);
+                        output.writeDouble(causes.damage[index]);
+                    }
+                }
+            }
+        }
+
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Aggregate of the service sessions of a player, either of a single day or of multiple days.
+     */
+    public static final class Day {
+
+        private int sessions;
+        private long duration;
+        private double damage;
+
+        private Day() { }
+
+        private Day(@NotNull final Day day) {
+            this.sessions = day.sessions;
+            this.duration = day.duration;
+            this.damage = day.damage;
+        }
+
+        public int getSessions() {
+            return this.sessions;
+        }
+
+        public long getDuration() {
+            return this.duration;
+        }
+
+        public double getDamage() {
+            return this.damage;
+        }
+    }
+
+    /**
+     * Prevented damage of the service sessions of a player, indexed by damage cause ordinal.
+     */
+    public static final class Causes {
+
+        private final double[] damage;
+        private final int[] hits;
+
+        private Causes() {
+            this.damage = new double[CAUSES.length];
+            this.hits = new int[CAUSES.length];
+        }
+
+        private Causes(@NotNull final Causes causes) {
+            this.damage = causes.damage.clone();
+            this.hits = causes.hits.clone();
+        }
+
+        public @NotNull double[] getDamage() {
+            return this.damage;
+        }
+
+        public @NotNull int[] getHits() {
+            return this.hits;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.github.g4memas0n.services.audit;
+
+import com.github.g4memas0n.services.PlayerState;
+import com.github.g4memas0n.services.Services;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Session Log, that records the finished service sessions of all players.
+ *
+ * <p>Records are collected on the main thread and handed over in batches to a single background thread, that appends
+ * them to the current log file and rotates the file when it exceeds the configured size. The hand over never blocks
+ * the main thread, batches that exceed the bounded queue of the writer are kept and handed over again later.</p>
+ *
+ * <p>The background thread also owns the {@link SessionIndex}, that gets updated with each written batch and saved
+ * when the log file gets rotated. Queries of the index are run on the background thread too, but only a few queries
+ * may wait at once, so that they can not fill the queue of the writer.</p>
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class SessionLog {
+
+    /**
+     * The delay in ticks, after that collected records get written.
+     */
+    private static final long FLUSH_DELAY = 100L;
+
+    /**
+     * The maximum count of batches, that are waiting to be written.
+     */
+    private static final int QUEUE_SIZE = 64;
+
+    /**
+     * The maximum count of queries, that are waiting to be run.
+     */
+    private static final int QUERY_LIMIT = 8;
+
+    private static final Material[] MATERIALS = Material.values();
+
+    private final List<SessionRecord> records;
+    private final Services instance;
+    private final File directory;
+
+    private final SessionIndex index;
+    private final AtomicInteger queries;
+
+    private ExecutorService writer;
+    private boolean scheduled;
+
+    public SessionLog(@NotNull final Services instance) {
+        this.records = new ArrayList<>();
+        this.index = new SessionIndex();
+        this.queries = new AtomicInteger();
+        this.instance = instance;
+        this.directory = new File(instance.getDataFolder(), "sessions");
+    }
+
+    public void enable() {
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_SIZE), runnable -> {
+            final Thread thread = new Thread(runnable, "Services-Session-Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Load the session index on the writer thread, so that it is loaded before any record gets added:
+        this.writer.execute(this::load);
+    }
+
+    /**
+     * Writes all collected records and waits until all writes are finished.
+     */
+    public void disable() {
+        this.flush();
+        this.writer.shutdown();
+
+        try {
+            if (!this.writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                this.instance.getLogger().warning("Unable to write all session records: Timeout has been reached.");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Write the records that could not be handed over directly, as the writer thread has terminated:
+        if (!this.records.isEmpty() && this.writer.isTerminated()) {
+            this.write(new ArrayList<>(this.records), this.instance.getSettings().getAuditRotateSize() * 1024L);
+            this.records.clear();
+        }
+
+        this.writer = null;
+    }
+
+    public @NotNull File getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * Records the service session of the given player, that has ended.
+     *
+     * @param player the player whose session has ended.
+     * @param state the session of the player.
+     */
+    public void record(@NotNull final Player player, @NotNull final PlayerState state) {
+        if (this.writer == null || !this.instance.getSettings().isAuditLog() || state.getStarted() == 0L) {
+            return;
+        }
+
+        final StringBuilder items = new StringBuilder();
+        final BitSet used = state.getUsed();
+
+        for (int index = used.nextSetBit(0); index >= 0; index = used.nextSetBit(index + 1)) {
+            if (items.length() > 0) {
+                items.append(';');
+            }
+
+            items.append(MATERIALS[index].getKey());
+        }
+
+        this.records.add(new SessionRecord(player.getUniqueId(), player.getName(), state.getWorld(),
+                state.getStarted(), System.currentTimeMillis(), state.getPrevented(), items.toString(),
+                state.getPreventedByCause().clone(), state.getHitsByCause().clone()));
+
+        // Note: records of a disabling plugin get written when this log gets disabled.
+        if (!this.scheduled && this.instance.isEnabled()) {
+            this.instance.scheduleTask(this::flush, FLUSH_DELAY);
+            this.scheduled = true;
+        }
+    }
+
+    /**
+     * Hands over all collected records in a single batch to the writer thread.
+     */
+    private void flush() {
+        this.scheduled = false;
+
+        if (this.records.isEmpty() || this.writer == null) {
+            return;
+        }
+
+        final List<SessionRecord> batch = new ArrayList<>(this.records);
+        final long limit = this.instance.getSettings().getAuditRotateSize() * 1024L;
+
+        try {
+            this.writer.execute(() -> this.write(batch, limit));
+            this.records.clear();
+        } catch (RejectedExecutionException ex) {
+            // Keep the records and hand them over again with the next flush:
+            if (!this.scheduled && this.instance.isEnabled()) {
+                this.instance.scheduleTask(this::flush, FLUSH_DELAY);
+                this.scheduled = true;
+            }
+
+            if (this.instance.getSettings().isDebug()) {
+                this.instance.getLogger().info("Delayed writing of " + batch.size() + " session records: Queue is full.");
+            }
+        }
+    }
+
+    /**
+     * Queries the session index asynchronously and passes the result to the given callback on the main thread.
+     *
+     * @param query the query to run on the session index, which must not return views of the index.
+     * @param callback the callback that receives the result on the main thread.
+     * @param <T> the type of the result.
+     * @return true if the query was submitted, false if the writer is busy.
+     */
+    public <T> boolean query(@NotNull final Function<SessionIndex, T> query, @NotNull final Consumer<T> callback) {
+        if (this.writer == null) {
+            return false;
+        }
+
+        if (this.queries.incrementAndGet() > QUERY_LIMIT) {
+            this.queries.decrementAndGet();
+            return false;
+        }
+
+        try {
+            this.writer.execute(() -> {
+                final T result;
+
+                try {
+                    result = query.apply(this.index);
+                } finally {
+                    this.queries.decrementAndGet();
+                }
+
+                if (this.instance.isEnabled()) {
+                    this.instance.getServer().getScheduler().runTask(this.instance, () -> callback.accept(result));
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            this.queries.decrementAndGet();
+            return false;
+        }
+
+        return true;
+    }
+
+    private @NotNull File getIndexFile() {
+        return new File(this.directory, "sessions.idx");
+    }
+
+    /**
+     * Loads the session index and adds all rotated log files, that are not indexed yet, and the current log file.
+     */
+    private void load() {
+        try {
+            this.index.load(this.getIndexFile());
+
+            final File[] files = this.directory.listFiles((directory, name) -> name.startsWith("sessions-") && name.endsWith(".csv"));
+            boolean changed = false;
+
+            if (files != null) {
+                for (final File file : files) {
+                    if (!this.index.isIndexed(file)) {
+                        this.index.read(file);
+                        this.index.markIndexed(file);
+                        changed = true;
+                    }
+                }
+            }
+
+            if (changed) {
+                this.index.save(this.getIndexFile());
+            }
+
+            // Note: the current log file is never part of the saved index, as it is read again on each load.
+            if (this.getFile().isFile()) {
+                this.index.read(this.getFile());
+            }
+        } catch (IOException ex) {
+            this.instance.getLogger().warning("Unable to load session index: " + ex.getMessage());
+        }
+    }
+
+    private @NotNull File getFile() {
+        return new File(this.directory, "sessions.csv");
+    }
+
+    private void write(@NotNull final List<SessionRecord> batch, final long limit) {
+        final File file = this.getFile();
+
+        try {
+            if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+                throw new IOException("Unable to create directory " + this.directory.getName());
+            }
+
+            final boolean header = !file.isFile();
+
+            try (BufferedWriter output = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                if (header) {
+                    output.write(SessionRecord.HEADER);
+                    output.newLine();
+                }
+
+                for (final SessionRecord record : batch) {
+                    output.write(record.encode());
+                    output.newLine();
+                }
+            }
+
+            batch.forEach(this.index::add);
+
+            if (file.length() >= limit) {
+                this.rotate(file);
+            }
+        } catch (IOException ex) {
+            this.instance.getLogger().warning("Unable to write session records: " + ex.getMessage());
+        }
+    }
+
+    private void rotate(@NotNull final File file) throws IOException {
+        final File rotated = new File(this.directory, "sessions-" + System.currentTimeMillis() + ".csv");
+
+        Files.move(file.toPath(), rotated.toPath(), StandardCopyOption.ATOMIC_MOVE);
+
+        // The records of the rotated file are already indexed, so the index only needs to be saved:
+        this.index.markIndexed(rotated);
+        this.index.save(this.getIndexFile());
+
+        if (this.instance.getSettings().isDebug()) {
+            this.instance.getLogger().info("Rotated session log file: " + rotated.getName());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.github.g4memas0n.services.audit;
+
+import org.bukkit.event.entity.EntityDamageEvent.DamageCause;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Session Record, that represents a single finished service session of a player.
+ *
+ * <p>A record is written as a single CSV line of the form:
+ * {@code start,end,player,name,world,damage,items,causes}, where both times are in milliseconds, the damage is the
+ * total prevented damage and the items are the keys of the used service items separated by semicolons. The causes
+ * are the prevented damage by cause of the form {@code <cause>:<hits>:<damage>} separated by semicolons.</p>
+ *
+ * <p>Columns that contain commas or quotes, like the names of some worlds, are enclosed in quotes and contained
+ * quotes are doubled.</p>
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class SessionRecord {
+
+    /**
+     * The header line of a session log file.
+     */
+    public static final String HEADER = "start,end,player,name,world,damage,items,causes";
+
+    private static final DamageCause[] CAUSES = DamageCause.values();
+
+    private final UUID uniqueId;
+    private final String name;
+    private final String world;
+    private final long start;
+    private final long end;
+    private final double damage;
+    private final String items;
+    private final double[] causes;
+    private final int[] hits;
+
+    public SessionRecord(@NotNull final UUID uniqueId, @NotNull final String name, @NotNull final String world,
+                         final long start, final long end, final double damage, @NotNull final String items,
+                         @NotNull final double[] causes, @NotNull final int[] hits) {
+        this.uniqueId = uniqueId;
+        this.name = name;
+        this.world = world;
+        this.start = start;
+        this.end = end;
+        this.damage = damage;
+        this.items = items;
+        this.causes = causes;
+        this.hits = hits;
+    }
+
+    public @NotNull UUID getUniqueId() {
+        return this.uniqueId;
+    }
+
+    public @NotNull String getName() {
+        return this.name;
+    }
+
+    public @NotNull String getWorld() {
+        return this.world;
+    }
+
+    public long getStart() {
+        return this.start;
+    }
+
+    public long getEnd() {
+        return this.end;
+    }
+
+    public long getDuration() {
+        return this.end - this.start;
+    }
+
+    public double getDamage() {
+        return this.damage;
+    }
+
+    public @NotNull String getItems() {
+        return this.items;
+    }
+
+    /**
+     * Returns the prevented damage of this session, indexed by damage cause ordinal.
+     *
+     * @return the prevented damage by cause.
+     */
+    public @NotNull double[] getCauses() {
+        return this.causes;
+    }
+
+    /**
+     * Returns the count of prevented damage events of this session, indexed by damage cause ordinal.
+     *
+     * @return the prevented hits by cause.
+     */
+    public @NotNull int[] getHits() {
+        return this.hits;
+    }
+
+    public @NotNull String encode() {
+        final StringBuilder causes = new StringBuilder();
+
+        for (int index = 0; index < this.causes.length; index++) {
+            if (this.hits[index] > 0) {
+                if (causes.length() > 0) {
+                    causes.append(';');
+                }
+
+                causes.append(String.format(Locale.ROOT, "%s:%d:%.1f", CAUSES[index].name(), this.hits[index], this.causes[index]));
+            }
+        }
+
+        return String.format(Locale.ROOT, "%d,%d,%s,%s,%s,%.1f,%s,%s", this.start, this.end, this.uniqueId,
+                quote(this.name), quote(this.world), this.damage, this.items, causes);
+    }
+
+    private static @NotNull String quote(@NotNull final String column) {
+        if (column.indexOf(',') < 0 && column.indexOf('"') < 0) {
+            return column;
+        }
+
+        return '"' + column.replace("\"", "\"\"") + '"';
+    }
+
+    private static @NotNull String[] split(@NotNull final String line) {
+        final List<String> columns = new ArrayList<>(8);
+        final StringBuilder column = new StringBuilder();
+        boolean quoted = false;
+
+        for (int index = 0; index < line.length(); index++) {
+            final char character = line.charAt(index);
+
+            if (quoted) {
+                if (character != '"') {
+                    column.append(character);
+                } else if (index + 1 < line.length() && line.charAt(index + 1) == '"') {
+                    column.append('"');
+                    index++;
+                } else {
+                    quoted = false;
+                }
+            } else if (character == '"') {
+                quoted = true;
+            } else if (character == ',') {
+                columns.add(column.toString());
+                column.setLength(0);
+            } else {
+                column.append(character);
+            }
+        }
+
+        columns.add(column.toString());
+        return columns.toArray(new String[0]);
+    }
+
+    /**
+     * Decodes the given line of a session log file to a record.
+     *
+     * @param line the encoded record.
+     * @return the decoded record or null if the line is not a valid record.
+     */
+    public static @Nullable SessionRecord decode(@NotNull final String line) {
+        final String[] columns = split(line);
+
+        // Note: records without causes were written before the damage causes were recorded.
+        if (columns.length != 7 && columns.length != 8) {
+            return null;
+        }
+
+        final double[] causes = new double[CAUSES.length];
+        final int[] hits = new int[CAUSES.length];
+
+        try {
+            if (columns.length > 7 && !columns[7].isEmpty()) {
+                for (final String cause : columns[7].split(";")) {
+                    final String[] parts = cause.split(":");
+
+                    if (parts.length != 3) {
+                        return null;
+                    }
+
+                    final int ordinal = DamageCause.valueOf(parts[0]).ordinal();
+
+                    hits[ordinal] += Integer.parseInt(parts[1]);
+                    causes[ordinal] += Double.parseDouble(parts[2]);
+                }
+            }
+
+            return new SessionRecord(UUID.fromString(columns[2]), columns[3], columns[4], Long.parseLong(columns[0]),
+                    Long.parseLong(columns[1]), Double.parseDouble(columns[5]), columns[6], causes, hits);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "SessionRecord{player=" + this.uniqueId + ", world=" + this.world + ", duration=" + this.getDuration() + "}";
+    }
+}
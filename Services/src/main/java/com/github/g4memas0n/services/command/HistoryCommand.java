@@ -0,0 +1,154 @@
+package com.github.g4memas0n.services.command;
+
+import com.github.g4memas0n.services.audit.SessionIndex.Day;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.util.StringUtil;
+import org.jetbrains.annotations.NotNull;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+
+import static com.github.g4memas0n.services.util.Messages.tl;
+import static com.github.g4memas0n.services.util.Messages.tlErr;
+
+/**
+ * The history command that allows to show the recorded service sessions of a player.
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class HistoryCommand extends BasicCommand {
+
+    /**
+     * The maximum count of days, that can be queried.
+     */
+    public static final int MAX_DAYS = 365;
+
+    private static final int DEFAULT_DAYS = 7;
+
+    public HistoryCommand() {
+        super("history", 1, 2);
+
+        this.setPermission("services.manage.history");
+    }
+
+    /**
+     * Parses the given argument to a count of days between one and the maximum count of days.
+     *
+     * @param argument the argument to parse.
+     * @return the count of days or -1 if the argument is not a valid count of days.
+     */
+    static int parseDays(@NotNull final String argument) {
+        try {
+            final int days = Integer.parseInt(argument);
+
+            return days >= 1 && days <= MAX_DAYS ? days : -1;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    @Override
+    public boolean execute(@NotNull final CommandSender sender,
+                           @NotNull final String[] arguments) {
+        if (this.argsInRange(arguments.length)) {
+            final int days = arguments.length > 1 ? parseDays(arguments[1]) : DEFAULT_DAYS;
+
+            if (days < 0) {
+                sender.sendMessage(tlErr("command.history.invalid", arguments[1]));
+                return true;
+            }
+
+            final Player target = this.instance.getServer().getPlayerExact(arguments[0]);
+            final UUID known = target != null ? target.getUniqueId() : null;
+            final String name = arguments[0];
+
+            // Note: the index only covers recorded sessions, so new sessions are missing while recording is disabled.
+            if (!this.instance.getSettings().isAuditLog()) {
+                sender.sendMessage(tl("command.history.disabled"));
+            }
+
+            // Note: the query runs on the writer thread of the session log, so only copies are returned.
+            final boolean submitted = this.instance.getAudit().query(index -> {
+                final UUID uniqueId = known != null ? known : index.getUniqueId(name);
+
+                if (uniqueId == null) {
+                    return null;
+                }
+
+                return new History(index.getName(uniqueId), index.getDays(uniqueId, index.getToday() - days + 1));
+            }, result -> {
+                if (result == null || result.days.isEmpty()) {
+                    sender.sendMessage(tl("command.history.empty", result != null ? result.name : name, days));
+                    return;
+                }
+
+                int sessions = 0;
+                long duration = 0L;
+                double damage = 0D;
+
+                for (final Day day : result.days.values()) {
+                    sessions += day.getSessions();
+                    duration += day.getDuration();
+                    damage += day.getDamage();
+                }
+
+                sender.sendMessage(tl("command.history.header", result.name, days, sessions, duration / 60000L,
+                        Math.round(damage)));
+
+                for (final Map.Entry<Long, Day> entry : result.days.descendingMap().entrySet()) {
+                    sender.sendMessage(tl("command.history.day", LocalDate.ofEpochDay(entry.getKey()).toString(),
+                            entry.getValue().getSessions(), entry.getValue().getDuration() / 60000L,
+                            Math.round(entry.getValue().getDamage())));
+                }
+            });
+
+            if (!submitted) {
+                sender.sendMessage(tlErr("command.history.busy"));
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public @NotNull List<String> tabComplete(@NotNull final CommandSender sender,
+                                             @NotNull final String[] arguments) {
+        if (arguments.length == 1) {
+            final List<String> completion = new ArrayList<>();
+
+            for (final Player player : this.instance.getServer().getOnlinePlayers()) {
+                if (StringUtil.startsWithIgnoreCase(player.getName(), arguments[0])) {
+                    completion.add(player.getName());
+                }
+            }
+
+            Collections.sort(completion);
+
+            return completion;
+        }
+
+        return Collections.emptyList();
+    }
+
+    /**
+     * Result of a history query, that holds the name of the player and its aggregated days.
+     */
+    private static final class History {
+
+        private final String name;
+        private final NavigableMap<Long, Day> days;
+
+        private History(@NotNull final String name, @NotNull final NavigableMap<Long, Day> days) {
+            this.name = name;
+            this.days = days;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.g4memas0n.services.command;
+
+import com.github.g4memas0n.services.ServiceManager;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import static com.github.g4memas0n.services.util.Messages.tl;
+import static com.github.g4memas0n.services.util.Messages.tlErr;
+
+/**
+ * The list command that allows to list all players in warmup and service.
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class ListCommand extends BasicCommand {
+
+    private static final int PAGE_SIZE = 10;
+
+    public ListCommand() {
+        super("list", 0, 1);
+
+        this.setPermission("services.manage.list");
+    }
+
+    @Override
+    public boolean execute(@NotNull final CommandSender sender,
+                           @NotNull final String[] arguments) {
+        if (this.argsInRange(arguments.length)) {
+            final ServiceManager manager = this.instance.getManager();
+            final int total = manager.getServiceCount() + manager.getWarmupCount();
+
+            if (total == 0) {
+                sender.sendMessage(tl("command.list.empty"));
+                return true;
+            }
+
+            final int pages = (total + PAGE_SIZE - 1) / PAGE_SIZE;
+            int page = 1;
+
+            if (arguments.length > 0) {
+                try {
+                    page = Integer.parseInt(arguments[0]);
+                } catch (NumberFormatException ex) {
+                    sender.sendMessage(tlErr("command.list.invalid", arguments[0]));
+                    return true;
+                }
+
+                if (page < 1 || page > pages) {
+                    sender.sendMessage(tlErr("command.list.invalid", arguments[0]));
+                    return true;
+                }
+            }
+
+            sender.sendMessage(tl("command.list.header", manager.getServiceCount(), manager.getWarmupCount(),
+                    manager.getGraceCount(), page, pages));
+
+            // Skip the entries of the previous pages, players in service are listed before players in warmup:
+            final Iterator<UUID> services = manager.getServices().iterator();
+            final Iterator<UUID> warmups = manager.getWarmups().iterator();
+            int index = 0;
+
+            while (index < page * PAGE_SIZE && (services.hasNext() || warmups.hasNext())) {
+                final UUID uniqueId = services.hasNext() ? services.next() : warmups.next();
+
+                if (index++ < (page - 1) * PAGE_SIZE) {
+                    continue;
+                }
+
+                final Player player = this.instance.getServer().getPlayer(uniqueId);
+                final String name = player != null ? player.getName() : uniqueId.toString();
+
+                if (manager.isGrace(uniqueId)) {
+                    sender.sendMessage(tl("command.list.grace", index, name));
+                } else if (manager.isService(uniqueId)) {
+                    sender.sendMessage(tl("command.list.service", index, name));
+                } else {
+                    sender.sendMessage(tl("command.list.warmup", index, name));
+                }
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public @NotNull List<String> tabComplete(@NotNull final CommandSender sender,
+                                             @NotNull final String[] arguments) {
+        return Collections.emptyList();
+    }
+}
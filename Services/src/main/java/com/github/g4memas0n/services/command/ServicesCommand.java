@@ -26,14 +26,18 @@ import static com.github.g4memas0n.services.util.Messages.tl;
  */
 public final class ServicesCommand extends BasicCommand implements TabExecutor {
 
-    private final Map<String, BasicCommand> commands = new HashMap<>(3, 1);
+    private final Map<String, BasicCommand> commands = new HashMap<>(7, 1);
 
     private PluginCommand command;
 
     public ServicesCommand() {
         super("services", 1, -1);
 
+        this.addCommand(new HistoryCommand());
+        this.addCommand(new ListCommand());
         this.addCommand(new ReloadCommand());
+        this.addCommand(new StatsCommand());
+        this.addCommand(new TopCommand());
         this.addCommand(new VersionCommand());
         this.setPermission("services.manage");
     }
@@ -0,0 +1,146 @@
+package com.github.g4memas0n.services.command;
+
+import com.github.g4memas0n.services.PlayerState;
+import com.github.g4memas0n.services.audit.SessionIndex.Causes;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.EntityDamageEvent.DamageCause;
+import org.bukkit.util.StringUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static com.github.g4memas0n.services.util.Messages.tl;
+import static com.github.g4memas0n.services.util.Messages.tlErr;
+
+/**
+ * The stats command that allows to show the prevented damage of a player, broken down by damage cause.
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class StatsCommand extends BasicCommand {
+
+    private static final DamageCause[] CAUSES = DamageCause.values();
+
+    public StatsCommand() {
+        super("stats", 1, 1);
+
+        this.setPermission("services.manage.stats");
+    }
+
+    @Override
+    public boolean execute(@NotNull final CommandSender sender,
+                           @NotNull final String[] arguments) {
+        if (this.argsInRange(arguments.length)) {
+            final Player target = this.instance.getServer().getPlayerExact(arguments[0]);
+            final UUID known = target != null ? target.getUniqueId() : null;
+            final String name = target != null ? target.getName() : arguments[0];
+            double[] damage = null;
+            int[] hits = null;
+
+            // Take copies of the current session, as it may end before the recorded sessions are queried:
+            if (target != null && this.instance.getManager().getState(target).getStarted() != 0L) {
+                final PlayerState state = this.instance.getManager().getState(target);
+
+                damage = state.getPreventedByCause().clone();
+                hits = state.getHitsByCause().clone();
+            }
+
+            final double[] sessionDamage = damage;
+            final int[] sessionHits = hits;
+
+            // Note: the index only covers recorded sessions, so new sessions are missing while recording is disabled.
+            if (!this.instance.getSettings().isAuditLog()) {
+                sender.sendMessage(tl("command.stats.disabled"));
+            }
+
+            // Note: the query runs on the writer thread of the session log, so only copies are returned.
+            final boolean submitted = this.instance.getAudit().query(index -> {
+                final UUID uniqueId = known != null ? known : index.getUniqueId(name);
+
+                return uniqueId != null ? index.getCauses(uniqueId) : null;
+            }, causes -> {
+                if (sessionDamage == null && (causes == null || sum(causes.getHits()) == 0)) {
+                    sender.sendMessage(tl("command.stats.empty", name));
+                    return;
+                }
+
+                sender.sendMessage(tl("command.stats.header", name));
+
+                if (sessionDamage != null) {
+                    this.send(sender, "command.stats.session", sessionDamage, sessionHits);
+                }
+
+                if (causes != null) {
+                    this.send(sender, "command.stats.recorded", causes.getDamage(), causes.getHits());
+                }
+            });
+
+            if (!submitted) {
+                sender.sendMessage(tlErr("command.stats.busy"));
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    private void send(@NotNull final CommandSender sender, @NotNull final String key,
+                      @NotNull final double[] damage, @NotNull final int[] hits) {
+        final List<Integer> causes = new ArrayList<>();
+        double total = 0D;
+
+        for (int index = 0; index < CAUSES.length; index++) {
+            if (hits[index] > 0) {
+                causes.add(index);
+                total += damage[index];
+            }
+        }
+
+        sender.sendMessage(tl(key, Math.round(total), sum(hits)));
+
+        // List the causes with the most prevented damage first:
+        causes.sort((first, second) -> Double.compare(damage[second], damage[first]));
+
+        for (final int index : causes) {
+            sender.sendMessage(tl("command.stats.cause", CAUSES[index].name(), Math.round(damage[index]), hits[index]));
+        }
+    }
+
+    private static int sum(@Nullable final int[] values) {
+        int sum = 0;
+
+        if (values != null) {
+            for (final int value : values) {
+                sum += value;
+            }
+        }
+
+        return sum;
+    }
+
+    @Override
+    public @NotNull List<String> tabComplete(@NotNull final CommandSender sender,
+                                             @NotNull final String[] arguments) {
+        if (arguments.length == 1) {
+            final List<String> completion = new ArrayList<>();
+
+            for (final Player player : this.instance.getServer().getOnlinePlayers()) {
+                if (StringUtil.startsWithIgnoreCase(player.getName(), arguments[0])) {
+                    completion.add(player.getName());
+                }
+            }
+
+            Collections.sort(completion);
+
+            return completion;
+        }
+
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.g4memas0n.services.command;
+
+import com.github.g4memas0n.services.audit.SessionIndex.Day;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.github.g4memas0n.services.util.Messages.tl;
+import static com.github.g4memas0n.services.util.Messages.tlErr;
+
+/**
+ * The top command that allows to show the players with the longest service duration.
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class TopCommand extends BasicCommand {
+
+    private static final int DEFAULT_DAYS = 7;
+    private static final int LIMIT = 10;
+
+    public TopCommand() {
+        super("top", 0, 1);
+
+        this.setPermission("services.manage.top");
+    }
+
+    @Override
+    public boolean execute(@NotNull final CommandSender sender,
+                           @NotNull final String[] arguments) {
+        if (this.argsInRange(arguments.length)) {
+            final int days = arguments.length > 0 ? HistoryCommand.parseDays(arguments[0]) : DEFAULT_DAYS;
+
+            if (days < 0) {
+                sender.sendMessage(tlErr("command.top.invalid", arguments[0]));
+                return true;
+            }
+
+            // Note: the index only covers recorded sessions, so new sessions are missing while recording is disabled.
+            if (!this.instance.getSettings().isAuditLog()) {
+                sender.sendMessage(tl("command.top.disabled"));
+            }
+
+            // Note: the query runs on the writer thread of the session log, so the names are resolved there too.
+            final boolean submitted = this.instance.getAudit().query(index -> {
+                final List<Map.Entry<String, Day>> top = new ArrayList<>();
+
+                for (final Map.Entry<UUID, Day> entry : index.getTop(index.getToday() - days + 1, LIMIT)) {
+                    top.add(new AbstractMap.SimpleImmutableEntry<>(index.getName(entry.getKey()), entry.getValue()));
+                }
+
+                return top;
+            }, top -> {
+                if (top.isEmpty()) {
+                    sender.sendMessage(tl("command.top.empty", days));
+                    return;
+                }
+
+                sender.sendMessage(tl("command.top.header", days));
+
+                for (int index = 0; index < top.size(); index++) {
+                    final Day total = top.get(index).getValue();
+
+                    sender.sendMessage(tl("command.top.entry", index + 1, top.get(index).getKey(),
+                            total.getSessions(), total.getDuration() / 60000L, Math.round(total.getDamage())));
+                }
+            });
+
+            if (!submitted) {
+                sender.sendMessage(tlErr("command.top.busy"));
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public @NotNull List<String> tabComplete(@NotNull final CommandSender sender,
+                                             @NotNull final String[] arguments) {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,230 @@
+package com.github.g4memas0n.services.condition;
+
+import com.github.g4memas0n.services.PlayerState;
+import com.github.g4memas0n.services.ServiceManager;
+import com.github.g4memas0n.services.Services;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import static com.github.g4memas0n.services.util.Messages.tl;
+import static com.github.g4memas0n.services.util.Messages.tlEnum;
+
+/**
+ * Condition Engine, that evaluates the service conditions of players.
+ *
+ * <p>Each service condition is a {@link Requirement} with known dependencies. The results of the requirements are
+ * cached in the {@link PlayerState} of each player, so that a change only re-evaluates the requirements that depend
+ * on it. Requirements are evaluated in declaration order and the evaluation stops at the first failed requirement,
+ * the remaining requirements are evaluated when they are needed.</p>
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class ConditionEngine {
+
+    /**
+     * The dependency on the permissions of the player.
+     */
+    public static final int PERMISSION = 1;
+
+    /**
+     * The dependency on the game-mode of the player.
+     */
+    public static final int GAME_MODE = 1 << 1;
+
+    /**
+     * The dependency on the world of the player.
+     */
+    public static final int WORLD = 1 << 2;
+
+    /**
+     * The dependency on the block position of the player.
+     */
+    public static final int ZONE = 1 << 3;
+
+    /**
+     * All dependencies.
+     */
+    public static final int ALL = PERMISSION | GAME_MODE | WORLD | ZONE;
+
+    private static final String[] GAME_MODES;
+
+    static {
+        final GameMode[] modes = GameMode.values();
+
+        GAME_MODES = new String[modes.length];
+
+        for (final GameMode mode : modes) {
+            GAME_MODES[mode.ordinal()] = "services.game-mode." + mode.name().toLowerCase();
+        }
+    }
+
+    private final Requirement[] requirements;
+    private final int passed;
+
+    private final Services instance;
+
+    public ConditionEngine(@NotNull final Services instance) {
+        this.requirements = new Requirement[] {
+                new Requirement("permission", PERMISSION,
+                        (player, mode, world) -> player.hasPermission("services.service"),
+                        (player, mode, world) -> tl("service.denied")),
+                new Requirement("game-mode", GAME_MODE,
+                        (player, mode, world) -> instance.getSettings().isServiceGameMode(mode),
+                        (player, mode, world) -> tlEnum("service.disabled.game-mode", mode)),
+                new Requirement("game-mode-permission", GAME_MODE | PERMISSION,
+                        (player, mode, world) -> !instance.getSettings().isPermissionPerGameMode()
+                                || player.hasPermission(GAME_MODES[mode.ordinal()]),
+                        (player, mode, world) -> tlEnum("service.denied.game-mode", mode)),
+                // Note: the world, environment and their permissions are a single requirement, that is backed by the
+                // cached world slot mask of the player, so that a world change is reduced to a single bit test:
+                new Requirement("world", WORLD | PERMISSION,
+                        (player, mode, world) -> instance.getWorlds().isAllowed(player, world),
+                        (player, mode, world) -> this.getWorldMessage(player, world)),
+                new Requirement("zone", WORLD | ZONE,
+                        (player, mode, world) -> instance.getWorlds().isServiceZone(world,
+                                instance.getManager().getState(player)),
+                        (player, mode, world) -> tl("service.disabled.zone"))
+        };
+
+        this.passed = (1 << this.requirements.length) - 1;
+        this.instance = instance;
+    }
+
+    private @NotNull String getWorldMessage(@NotNull final Player player, @NotNull final World world) {
+        if (!this.instance.getWorlds().isServiceWorld(world)) {
+            return tl("service.disabled.world", world.getName());
+        }
+
+        if (!this.instance.getSettings().isServiceEnvironment(world.getEnvironment())) {
+            return tlEnum("service.disabled.environment", world.getEnvironment());
+        }
+
+        if (this.instance.getSettings().isPermissionPerWorld() && !this.instance.getWorlds().hasWorldPermission(player, world)) {
+            return tl("service.denied.world", world.getName());
+        }
+
+        return tlEnum("service.denied.environment", world.getEnvironment());
+    }
+
+    /**
+     * Updates the service condition of the given player, that moves to the given location.
+     *
+     * <p>Only the requirements that depend on the position get evaluated and only if the chunk of the given location
+     * differs from the chunk of the last evaluation or if the chunk requires an exact test and the block differs.</p>
+     *
+     * @param player the player that moves.
+     * @param to the location the player moves to.
+     */
+    public void move(@NotNull final Player player, @NotNull final Location to) {
+        final PlayerState state = this.instance.getManager().getState(player);
+        final int x = to.getBlockX(), y = to.getBlockY(), z = to.getBlockZ();
+
+        if ((state.getBlockX() >> 4) != (x >> 4) || (state.getBlockZ() >> 4) != (z >> 4)
+                || state.isExact() && (state.getBlockX() != x || state.getBlockY() != y || state.getBlockZ() != z)) {
+            state.setBlock(x, y, z);
+
+            this.update(player, player.getGameMode(), player.getWorld(), ZONE);
+        }
+    }
+
+    /**
+     * Updates the service condition of the given player with its current game-mode and world.
+     *
+     * @param player the player to update.
+     * @param changed the mask of dependencies that have changed.
+     */
+    public void update(@NotNull final Player player, final int changed) {
+        this.update(player, player.getGameMode(), player.getWorld(), changed);
+    }
+
+    /**
+     * Updates the service condition of the given player.
+     *
+     * <p>Only the requirements that depend on any of the changed dependencies or that were not evaluated yet get
+     * evaluated. If the player fulfills all requirements, it gets added to condition. Otherwise it gets removed from
+     * condition and notified about the first failed requirement, if it was in service. If the world has changed,
+     * the chunk of the player gets updated too. If the permissions have changed, the cached world slot mask of the
+     * player gets invalidated too.</p>
+     *
+     * @param player the player to update.
+     * @param mode the game-mode of the player, which may differ from the current one when it is changing.
+     * @param world the world of the player.
+     * @param changed the mask of dependencies that have changed.
+     */
+    public void update(@NotNull final Player player, @NotNull final GameMode mode,
+                       @NotNull final World world, final int changed) {
+        final ServiceManager manager = this.instance.getManager();
+        final PlayerState state = manager.getState(player);
+        int evaluated = state.getEvaluated();
+        int passed = state.getPassed();
+
+        if ((changed & WORLD) != 0) {
+            final Location location = player.getLocation();
+
+            state.setBlock(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        }
+
+        // The cached world slot mask includes the world and environment permissions:
+        if ((changed & PERMISSION) != 0) {
+            state.invalidateWorlds();
+        }
+
+        // Invalidate the results of all requirements that depend on the changes:
+        for (int index = 0; index < this.requirements.length; index++) {
+            if ((this.requirements[index].getDependencies() & changed) != 0) {
+                evaluated &= ~(1 << index);
+            }
+        }
+
+        int failed = -1;
+
+        for (int index = 0; index < this.requirements.length; index++) {
+            if ((evaluated & (1 << index)) == 0) {
+                if (this.requirements[index].test(player, mode, world)) {
+                    passed |= 1 << index;
+                } else {
+                    passed &= ~(1 << index);
+                }
+
+                evaluated |= 1 << index;
+            }
+
+            if ((passed & (1 << index)) == 0) {
+                failed = index;
+                break;
+            }
+        }
+
+        state.setRequirements(evaluated, passed);
+
+        if (failed < 0) {
+            // Player fulfills all requirements, add it to condition:
+            if (manager.addCondition(player)) {
+                if (this.instance.getSettings().isDebug()) {
+                    this.instance.getLogger().info("Player '" + player.getName() + "' is now in service world: " + world.getName() + " (environment: " + world.getEnvironment().name() + ")");
+                }
+
+                this.instance.runServiceCheck(player);
+            }
+
+            return;
+        }
+
+        final Requirement requirement = this.requirements[failed];
+
+        // Player fails a requirement, remove it from condition:
+        if (manager.removeCondition(player)) {
+            if (this.instance.getSettings().isDebug()) {
+                this.instance.getLogger().info("Player '" + player.getName() + "' no longer fulfills service requirement: " + requirement.getName());
+            }
+
+            if (manager.removeService(player)) {
+                player.sendMessage(requirement.getMessage(player, mode, world));
+            }
+        }
+    }
+}
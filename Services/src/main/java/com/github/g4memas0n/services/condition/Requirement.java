@@ -0,0 +1,70 @@
+package com.github.g4memas0n.services.condition;
+
+import org.bukkit.GameMode;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Requirement, that represents a single service condition with the state it depends on.
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class Requirement {
+
+    private final String name;
+    private final int dependencies;
+    private final Test test;
+    private final Message message;
+
+    /**
+     * Creates a new requirement.
+     *
+     * @param name the name of the requirement, used for debug information's.
+     * @param dependencies the mask of {@link ConditionEngine} dependencies, on which the test depends.
+     * @param test the test of the requirement.
+     * @param message the message that is sent when the player leaves service due to this requirement.
+     */
+    public Requirement(@NotNull final String name, final int dependencies,
+                       @NotNull final Test test, @NotNull final Message message) {
+        this.name = name;
+        this.dependencies = dependencies;
+        this.test = test;
+        this.message = message;
+    }
+
+    public @NotNull String getName() {
+        return this.name;
+    }
+
+    public int getDependencies() {
+        return this.dependencies;
+    }
+
+    public boolean test(@NotNull final Player player, @NotNull final GameMode mode, @NotNull final World world) {
+        return this.test.test(player, mode, world);
+    }
+
+    public @NotNull String getMessage(@NotNull final Player player, @NotNull final GameMode mode,
+                                      @NotNull final World world) {
+        return this.message.get(player, mode, world);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return this.name;
+    }
+
+    @FunctionalInterface
+    public interface Test {
+
+        boolean test(@NotNull final Player player, @NotNull final GameMode mode, @NotNull final World world);
+    }
+
+    @FunctionalInterface
+    public interface Message {
+
+        @NotNull String get(@NotNull final Player player, @NotNull final GameMode mode, @NotNull final World world);
+    }
+}
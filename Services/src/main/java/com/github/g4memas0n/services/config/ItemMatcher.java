@@ -0,0 +1,168 @@
+package com.github.g4memas0n.services.config;
+
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Item Matcher, that matches items against the compiled service item rules.
+ *
+ * <p>Matching is done in two stages: At first the material of the item is tested against a bitset of all materials
+ * that are covered by any rule. Only if the material is a candidate of a rule with metadata predicates, the meta of
+ * the item gets read and tested against these predicates.</p>
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class ItemMatcher {
+
+    private final BitSet materials;
+    private final BitSet plain;
+    private final List<Rule> rules;
+
+    public ItemMatcher() {
+        this.materials = new BitSet();
+        this.plain = new BitSet();
+        this.rules = new ArrayList<>();
+    }
+
+    /**
+     * Adds a rule that matches all items of the given materials without checking their metadata.
+     *
+     * @param materials the materials of the rule.
+     */
+    public void add(@NotNull final BitSet materials) {
+        this.materials.or(materials);
+        this.plain.or(materials);
+    }
+
+    /**
+     * Adds a rule that matches all items of the given materials that fulfill the given metadata predicates.
+     *
+     * @param materials the materials of the rule.
+     * @param model the custom model data that items must have or null.
+     * @param key the persistent data key that items must have or null.
+     */
+    public void add(@NotNull final BitSet materials, @Nullable final Integer model, @Nullable final NamespacedKey key) {
+        if (model == null && key == null) {
+            this.add(materials);
+            return;
+        }
+
+        this.materials.or(materials);
+        this.rules.add(new Rule(materials, model, key));
+    }
+
+    public boolean isEmpty() {
+        return this.materials.isEmpty();
+    }
+
+    /**
+     * Returns all materials that are covered by any rule.
+     *
+     * @return a copy of the covered materials.
+     */
+    public @NotNull BitSet getMaterials() {
+        return (BitSet) this.materials.clone();
+    }
+
+    /**
+     * Returns whether the given material is covered by any rule.
+     *
+     * <p>Note: Items of the returned material may still be rejected by the metadata predicates of the rules.</p>
+     *
+     * @param material the material to check.
+     * @return true if the material is a possible service item.
+     */
+    public boolean matches(@NotNull final Material material) {
+        return this.materials.get(material.ordinal());
+    }
+
+    /**
+     * Returns whether the verdict for items of the given material depends on the metadata of the item.
+     *
+     * @param material the material to check.
+     * @return true if the material is only covered by rules with metadata predicates.
+     */
+    public boolean isMeta(@NotNull final Material material) {
+        final int ordinal = material.ordinal();
+
+        return this.materials.get(ordinal) && !this.plain.get(ordinal);
+    }
+
+    /**
+     * Returns whether any rule has metadata predicates.
+     *
+     * @return true if there are rules with metadata predicates.
+     */
+    public boolean isMeta() {
+        return !this.rules.isEmpty();
+    }
+
+    /**
+     * Returns whether the given item matches any rule.
+     *
+     * @param item the item to check.
+     * @return true if the item is a service item.
+     */
+    public boolean matches(@NotNull final ItemStack item) {
+        final int ordinal = item.getType().ordinal();
+
+        if (!this.materials.get(ordinal)) {
+            return false;
+        }
+
+        if (this.plain.get(ordinal)) {
+            return true;
+        }
+
+        // Note: the metadata is read only once, as checking for metadata already clones it.
+        final ItemMeta meta = item.getItemMeta();
+
+        if (meta == null) {
+            return false;
+        }
+
+        for (final Rule rule : this.rules) {
+            if (rule.materials.get(ordinal) && rule.matches(meta)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * A service item rule with metadata predicates.
+     */
+    private static final class Rule {
+
+        private final BitSet materials;
+        private final Integer model;
+        private final NamespacedKey key;
+
+        private Rule(@NotNull final BitSet materials, @Nullable final Integer model, @Nullable final NamespacedKey key) {
+            this.materials = materials;
+            this.model = model;
+            this.key = key;
+        }
+
+        private boolean matches(@Nullable final ItemMeta meta) {
+            if (meta == null) {
+                return false;
+            }
+
+            if (this.model != null && (!meta.hasCustomModelData() || meta.getCustomModelData() != this.model)) {
+                return false;
+            }
+
+            return this.key == null || meta.getPersistentDataContainer().getKeys().contains(this.key);
+        }
+    }
+}
@@ -5,25 +5,34 @@ import org.bukkit.GameMode;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.Registry;
+import org.bukkit.Tag;
 import org.bukkit.World;
 import org.bukkit.World.Environment;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
 import org.bukkit.event.entity.EntityDamageEvent.DamageCause;
+import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.permissions.Permission;
 import org.bukkit.potion.PotionEffectType;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
-import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -40,22 +49,40 @@ public final class Settings {
 
     private Set<DamageCause> blacklist;
     private Set<Environment> environments;
-    private Set<Material> items;
-    private Set<Material> disabled;
-    private Set<PotionEffectType> effects;
-    private Set<UUID> worlds;
+    private Set<GameMode> modes;
+    private Set<EquipmentSlot> slots;
+    private ItemMatcher items;
+    private BitSet disabled;
+    private BitSet effects;
+    private Map<String, BitSet> worldEffects;
+    private Set<String> worlds;
+    private List<Pattern> patterns;
+    private Map<String, Integer> sessions;
+    private ZoneIndex zones;
+
+    private String backend;
+    private File directory;
 
     private boolean action;
+    private boolean audit;
+    private boolean anywhere;
     private boolean buckets;
     private boolean debug;
     private boolean durability;
     private boolean environment;
     private boolean item;
+    private boolean keep;
+    private boolean mode;
     private boolean world;
 
     private int maximum;
+    private int rotate;
     private int warmup;
     private int grace;
+    private int idle;
+    private int session;
+    private int cooldown;
+    private int timeout;
 
     public Settings(@NotNull final Services instance) {
         this.instance = instance;
@@ -108,22 +135,39 @@ public final class Settings {
 
         this.blacklist = this._getDamageBlacklist();
         this.environments = this._getServiceEnvironments();
+        this.modes = this._getServiceGameModes();
+        this.slots = this._getServiceSlots();
         this.items = this._getServiceItems();
         this.disabled = this._getDisabledDrops();
         this.effects = this._getDisabledEffects();
+        this.worldEffects = this._getDisabledWorldEffects();
         this.worlds = this._getServiceWorlds();
+        this.patterns = this._getServiceWorldPatterns();
+        this.zones = this._getServiceZones();
+        this.backend = this._getSyncBackend();
+        this.directory = this._getSyncDirectory();
 
         this.action = this._getNotifyActionBar();
+        this.audit = this._getAuditLog();
+        this.anywhere = this._getServiceAnywhere();
         this.buckets = this._getUnlimitedBuckets();
         this.durability = this._getUnlimitedDurability();
         this.environment = this._getPermissionPerEnvironment();
         this.item = this._getPermissionPerItem();
+        this.mode = this._getPermissionPerGameMode();
+        this.keep = this._getKeepDisabledDrops();
         this.world = this._getPermissionPerWorld();
         this.debug = this._getDebug();
 
         this.maximum = this._getDamageMaximum();
+        this.rotate = this._getAuditRotateSize();
         this.warmup = this._getWarmupPeriod();
         this.grace = this._getGracePeriod();
+        this.idle = this._getIdlePeriod();
+        this.session = this._getSessionPeriod();
+        this.sessions = this._getSessionPeriods();
+        this.cooldown = this._getCooldownPeriod();
+        this.timeout = this._getSyncTimeout();
     }
 
     @SuppressWarnings("unused")
@@ -167,6 +211,35 @@ public final class Settings {
         return this.maximum > 0 && this.maximum < damage;
     }
 
+    private boolean _getAuditLog() {
+        return this.storage.getBoolean("audit.enabled", false);
+    }
+
+    public boolean isAuditLog() {
+        return this.audit;
+    }
+
+    private int _getAuditRotateSize() {
+        final int size = this.storage.getInt("audit.rotate-size", 1024);
+
+        if (size < 16 || size > 65536) {
+            this.instance.getLogger().warning("Detected invalid audit rotate size: Size is out of range.");
+
+            return 1024;
+        }
+
+        return size;
+    }
+
+    /**
+     * Returns the size in kilobytes, after that the session log file gets rotated.
+     *
+     * @return the rotate size in kilobytes.
+     */
+    public int getAuditRotateSize() {
+        return this.rotate;
+    }
+
     private boolean _getDebug() {
         return this.storage.getBoolean("debug", false);
     }
@@ -195,8 +268,8 @@ public final class Settings {
         return this._getLocale();
     }
 
-    private @NotNull Set<Material> _getDisabledDrops() {
-        final Set<Material> materials = EnumSet.noneOf(Material.class);
+    private @NotNull BitSet _getDisabledDrops() {
+        final BitSet materials = new BitSet();
 
         for (final String name : this.storage.getStringList("feature.disabled-drops")) {
             final NamespacedKey key = NamespacedKey.fromString(name.toLowerCase());
@@ -213,15 +286,15 @@ public final class Settings {
                 continue;
             }
 
-            if (!this.items.contains(material)) {
+            if (!this.items.matches(material)) {
                 this.instance.getLogger().warning("Detected invalid disabled-drop item: Material '" + name + "' is not a service item.");
                 continue;
             }
 
-            materials.add(material);
+            materials.set(material.ordinal());
         }
 
-        return Collections.unmodifiableSet(materials);
+        return materials;
     }
 
     public boolean isDisabledDrops() {
@@ -229,13 +302,22 @@ public final class Settings {
     }
 
     public boolean isDisabledDrop(@NotNull final Material material) {
-        return this.disabled.contains(material);
+        return this.disabled.get(material.ordinal());
     }
 
-    private @NotNull Set<PotionEffectType> _getDisabledEffects() {
-        final Set<PotionEffectType> effects = new HashSet<>();
+    private boolean _getKeepDisabledDrops() {
+        return this.storage.getBoolean("feature.keep-disabled-drops", false);
+    }
 
-        for (final String name : this.storage.getStringList("feature.disabled-effects")) {
+    public boolean isKeepDisabledDrops() {
+        return this.keep;
+    }
+
+    @SuppressWarnings("deprecation")
+    private @NotNull BitSet _getEffects(@NotNull final List<String> names) {
+        final BitSet effects = new BitSet();
+
+        for (final String name : names) {
             final PotionEffectType effect = PotionEffectType.getByName(name.toUpperCase());
 
             if (effect == null) {
@@ -243,18 +325,55 @@ public final class Settings {
                 continue;
             }
 
-            effects.add(effect);
+            effects.set(effect.getId());
         }
 
-        return Collections.unmodifiableSet(effects);
+        return effects;
+    }
+
+    private @NotNull BitSet _getDisabledEffects() {
+        return this._getEffects(this.storage.getStringList("feature.disabled-effects"));
+    }
+
+    private @NotNull Map<String, BitSet> _getDisabledWorldEffects() {
+        final ConfigurationSection section = this.storage.getConfigurationSection("feature.disabled-world-effects");
+        final Map<String, BitSet> effects = new HashMap<>();
+
+        if (section != null) {
+            for (final String world : section.getKeys(false)) {
+                final BitSet disabled = this._getEffects(section.getStringList(world));
+
+                if (!disabled.isEmpty()) {
+                    effects.put(world.toLowerCase(), disabled);
+                }
+            }
+        }
+
+        return Collections.unmodifiableMap(effects);
     }
 
     public boolean isDisabledEffects() {
-        return !this.effects.isEmpty();
+        return !this.effects.isEmpty() || !this.worldEffects.isEmpty();
     }
 
-    public boolean isDisabledEffect(@NotNull final PotionEffectType effect) {
-        return this.effects.contains(effect);
+    /**
+     * Returns the disabled potion effects in the given world, indexed by the id of the potion effect type.
+     *
+     * <p>Note: This method performs a name based lookup and should only be used when a world gets registered. For
+     * other lookups, use {@link com.github.g4memas0n.services.WorldRegistry#isDisabledEffect(World, PotionEffectType)}.</p>
+     *
+     * @param world the world to get the disabled potion effects for.
+     * @return the disabled potion effects, including the globally disabled ones.
+     */
+    public @NotNull BitSet getDisabledEffects(@NotNull final World world) {
+        final BitSet effects = (BitSet) this.effects.clone();
+        final BitSet disabled = this.worldEffects.get(world.getName().toLowerCase());
+
+        if (disabled != null) {
+            effects.or(disabled);
+        }
+
+        return effects;
     }
 
     private boolean _getUnlimitedBuckets() {
@@ -321,6 +440,99 @@ public final class Settings {
         return this.grace > 0;
     }
 
+    private int _getIdlePeriod() {
+        final int period = this.storage.getInt("period.idle", 0);
+
+        if (period < 0 || period > 3600) {
+            this.instance.getLogger().warning("Detected invalid idle period: Period is out of range.");
+
+            return 0;
+        }
+
+        return period;
+    }
+
+    public int getIdlePeriod() {
+        return this.idle;
+    }
+
+    public boolean isIdlePeriod() {
+        return this.idle > 0;
+    }
+
+    private int _getSessionPeriod() {
+        final int period = this.storage.getInt("period.session", 0);
+
+        if (period < 0 || period > 86400) {
+            this.instance.getLogger().warning("Detected invalid session period: Period is out of range.");
+
+            return 0;
+        }
+
+        return period;
+    }
+
+    private @NotNull Map<String, Integer> _getSessionPeriods() {
+        final ConfigurationSection section = this.storage.getConfigurationSection("period.sessions");
+        final Map<String, Integer> periods = new LinkedHashMap<>();
+
+        if (section != null) {
+            for (final String name : section.getKeys(false)) {
+                final int period = section.getInt(name, 0);
+
+                if (period < 1 || period > 86400) {
+                    this.instance.getLogger().warning("Detected invalid session period: Period of '" + name + "' is out of range.");
+                    continue;
+                }
+
+                periods.put("services.session." + name.toLowerCase(), period);
+            }
+        }
+
+        return Collections.unmodifiableMap(periods);
+    }
+
+    /**
+     * Returns the maximum session period of the given player, in seconds.
+     *
+     * <p>If the player has any session permission of the form {@code services.session.<name>}, the longest period
+     * of these permissions is used. Otherwise the default session period is used.</p>
+     *
+     * @param player the player to get the session period for.
+     * @return the session period or zero if the session of the player is unlimited.
+     */
+    public int getSessionPeriod(@NotNull final Player player) {
+        int period = 0;
+
+        for (final Map.Entry<String, Integer> entry : this.sessions.entrySet()) {
+            if (entry.getValue() > period && player.hasPermission(entry.getKey())) {
+                period = entry.getValue();
+            }
+        }
+
+        return period > 0 ? period : this.session;
+    }
+
+    public boolean isSessionPeriod() {
+        return this.session > 0 || !this.sessions.isEmpty();
+    }
+
+    private int _getCooldownPeriod() {
+        final int period = this.storage.getInt("period.cooldown", 0);
+
+        if (period < 0 || period > 86400) {
+            this.instance.getLogger().warning("Detected invalid cooldown period: Period is out of range.");
+
+            return 0;
+        }
+
+        return period;
+    }
+
+    public int getCooldownPeriod() {
+        return this.cooldown;
+    }
+
     private boolean _getPermissionPerEnvironment() {
         return this.storage.getBoolean("permission.per-environment", true);
     }
@@ -329,6 +541,14 @@ public final class Settings {
         return this.environment;
     }
 
+    private boolean _getPermissionPerGameMode() {
+        return this.storage.getBoolean("permission.per-game-mode", false);
+    }
+
+    public boolean isPermissionPerGameMode() {
+        return this.mode;
+    }
+
     private boolean _getPermissionPerItem() {
         return this.storage.getBoolean("permission.per-item", false);
     }
@@ -345,6 +565,14 @@ public final class Settings {
         return this.world;
     }
 
+    private boolean _getServiceAnywhere() {
+        return this.storage.getBoolean("service.anywhere", false);
+    }
+
+    public boolean isServiceAnywhere() {
+        return this.anywhere;
+    }
+
     private @NotNull Set<Environment> _getServiceEnvironments() {
         final Set<Environment> environments = EnumSet.noneOf(Environment.class);
 
@@ -367,59 +595,184 @@ public final class Settings {
         return this.environments.contains(environment);
     }
 
-    public boolean isServiceGameMode(@NotNull final GameMode mode) {
-        // Note: service-mode for other game-modes as survival make no sense.
-        return mode == GameMode.SURVIVAL;
-    }
+    private @NotNull Set<GameMode> _getServiceGameModes() {
+        final Set<GameMode> modes = EnumSet.noneOf(GameMode.class);
 
-    private @NotNull Set<Material> _getServiceItems() {
-        final Permission wildcard = this.instance.getServer().getPluginManager().getPermission("services.item.*");
-        final Set<Material> materials = EnumSet.noneOf(Material.class);
+        for (final String name : this.storage.getStringList("service.game-modes")) {
+            try {
+                final GameMode mode = GameMode.valueOf(name.toUpperCase());
 
-        for (final String name : this.storage.getStringList("service.items")) {
-            final NamespacedKey key = NamespacedKey.fromString(name.toLowerCase());
+                // Note: service-mode for creative and spectator make no sense, as these players are invulnerable.
+                if (mode == GameMode.CREATIVE || mode == GameMode.SPECTATOR) {
+                    this.instance.getLogger().warning("Detected invalid service game-mode: Game-Mode '" + name + "' is not allowed.");
+                    continue;
+                }
 
-            if (key == null) {
-                this.instance.getLogger().warning("Detected malformed service item: Key '" + name + "' is invalid.");
-                continue;
+                modes.add(mode);
+            } catch (IllegalArgumentException ex) {
+                this.instance.getLogger().warning("Detected invalid service game-mode: Game-Mode '" + name + "' does not exist.");
             }
+        }
 
-            final Material material = Registry.MATERIAL.get(key);
+        if (modes.isEmpty()) {
+            modes.add(GameMode.SURVIVAL);
+        }
 
-            if (material == null) {
-                this.instance.getLogger().warning("Detected invalid service item: Material '" + key + "' does not exist.");
-                continue;
-            }
+        return Collections.unmodifiableSet(modes);
+    }
 
-            if (!material.isItem()) {
-                this.instance.getLogger().warning("Detected invalid service item: Material '" + key + "' is not an obtainable item.");
-                continue;
+    public boolean isServiceGameMode(@NotNull final GameMode mode) {
+        return this.modes.contains(mode);
+    }
+
+    private @NotNull ItemMatcher _getServiceItems() {
+        final Permission wildcard = this.instance.getServer().getPluginManager().getPermission("services.item.*");
+        final ItemMatcher matcher = new ItemMatcher();
+
+        for (final String entry : this.storage.getStringList("service.items")) {
+            String name = entry.toLowerCase();
+            Integer model = null;
+            NamespacedKey data = null;
+
+            // Parse metadata predicates of the form: "<item>[model=<number>,data=<key>]"
+            if (name.endsWith("]") && name.indexOf('[') > 0) {
+                final String[] predicates = name.substring(name.indexOf('[') + 1, name.length() - 1).split(",");
+
+                name = name.substring(0, name.indexOf('['));
+
+                try {
+                    for (final String predicate : predicates) {
+                        final String[] parts = predicate.trim().split("=", 2);
+
+                        if (parts.length == 2 && parts[0].equals("model")) {
+                            model = Integer.parseInt(parts[1]);
+                        } else if (parts.length == 2 && parts[0].equals("data") && NamespacedKey.fromString(parts[1]) != null) {
+                            data = NamespacedKey.fromString(parts[1]);
+                        } else {
+                            throw new IllegalArgumentException(predicate);
+                        }
+                    }
+                } catch (IllegalArgumentException ex) {
+                    this.instance.getLogger().warning("Detected malformed service item: Predicates of '" + entry + "' are invalid.");
+                    continue;
+                }
             }
 
-            if (material.isEdible() || Registry.ENTITY_TYPE.get(key) != null || key.getKey().contains("bottle")) {
-                this.instance.getLogger().warning("Detected invalid service item: Material '" + key + "' is not an allowed item.");
-                continue;
+            final BitSet materials = new BitSet();
+
+            if (name.startsWith("#")) {
+                final NamespacedKey key = NamespacedKey.fromString(name.substring(1));
+
+                if (key == null) {
+                    this.instance.getLogger().warning("Detected malformed service item: Tag '" + entry + "' is invalid.");
+                    continue;
+                }
+
+                final Tag<Material> tag = this.instance.getServer().getTag(Tag.REGISTRY_ITEMS, key, Material.class);
+
+                if (tag == null) {
+                    this.instance.getLogger().warning("Detected invalid service item: Tag '" + key + "' does not exist.");
+                    continue;
+                }
+
+                for (final Material material : tag.getValues()) {
+                    if (this._isServiceItem(material)) {
+                        materials.set(material.ordinal());
+                    }
+                }
+            } else if (name.indexOf('*') >= 0 || name.indexOf('?') >= 0) {
+                final Pattern pattern = compileGlob(name.indexOf(':') < 0 ? "minecraft:" + name : name, 0);
+
+                for (final Material material : Material.values()) {
+                    if (!material.isLegacy() && pattern.matcher(material.getKey().toString()).matches()) {
+                        if (this._isServiceItem(material)) {
+                            materials.set(material.ordinal());
+                        }
+                    }
+                }
+            } else {
+                final NamespacedKey key = NamespacedKey.fromString(name);
+
+                if (key == null) {
+                    this.instance.getLogger().warning("Detected malformed service item: Key '" + entry + "' is invalid.");
+                    continue;
+                }
+
+                final Material material = Registry.MATERIAL.get(key);
+
+                if (material == null) {
+                    this.instance.getLogger().warning("Detected invalid service item: Material '" + key + "' does not exist.");
+                    continue;
+                }
+
+                if (!material.isItem()) {
+                    this.instance.getLogger().warning("Detected invalid service item: Material '" + key + "' is not an obtainable item.");
+                    continue;
+                }
+
+                if (!this._isServiceItem(material)) {
+                    this.instance.getLogger().warning("Detected invalid service item: Material '" + key + "' is not an allowed item.");
+                    continue;
+                }
+
+                materials.set(material.ordinal());
             }
 
-            if (wildcard != null) {
-                wildcard.getChildren().put("services.item." + material.getKey().getKey(), true);
+            if (materials.isEmpty()) {
+                this.instance.getLogger().warning("Detected invalid service item: Pattern '" + entry + "' matches no allowed item.");
+                continue;
             }
 
-            materials.add(material);
+            matcher.add(materials, model, data);
         }
 
-        if (materials.isEmpty()) {
+        if (matcher.isEmpty()) {
             this.instance.getLogger().warning("Detected missing or only invalid service items: Using default items...");
 
-            materials.addAll(Arrays.asList(Material.BEDROCK, Material.WOODEN_AXE));
+            final BitSet materials = new BitSet();
+
+            materials.set(Material.BEDROCK.ordinal());
+            materials.set(Material.WOODEN_AXE.ordinal());
+            matcher.add(materials);
         }
 
-        return Collections.unmodifiableSet(materials);
+        if (wildcard != null) {
+            final BitSet materials = matcher.getMaterials();
+            final Material[] values = Material.values();
+
+            for (int index = materials.nextSetBit(0); index >= 0; index = materials.nextSetBit(index + 1)) {
+                wildcard.getChildren().put("services.item." + values[index].getKey().getKey(), true);
+            }
+        }
+
+        return matcher;
+    }
+
+    private boolean _isServiceItem(@NotNull final Material material) {
+        // Note: Edible, throwable or non-item materials are not allowed as service item.
+        return material.isItem() && !material.isEdible() && !material.getKey().getKey().contains("bottle")
+                && Registry.ENTITY_TYPE.get(material.getKey()) == null;
     }
 
+    /**
+     * Returns whether the given item is a service item.
+     *
+     * @param stack the item to check.
+     * @return true if the item matches a service item rule.
+     */
+    public boolean isServiceItem(@NotNull final ItemStack stack) {
+        return this.items.matches(stack);
+    }
+
+    /**
+     * Returns whether any of the given items is a service item.
+     *
+     * @param stacks the items to check.
+     * @return true if any item matches a service item rule.
+     */
     public boolean isServiceItem(@NotNull final ItemStack... stacks) {
         for (final ItemStack stack : stacks) {
-            if (this.isServiceItem(stack.getType())) {
+            if (this.items.matches(stack)) {
                 return true;
             }
         }
@@ -427,41 +780,301 @@ public final class Settings {
         return false;
     }
 
+    public boolean isServiceItemMeta() {
+        return this.items.isMeta();
+    }
+
+    public boolean isServiceItemMeta(@NotNull final Material item) {
+        return this.items.isMeta(item);
+    }
+
+    /**
+     * Returns whether the given material is covered by a service item rule.
+     *
+     * <p>Note: This method does not check the metadata predicates of the rules and should only be used when no item
+     * is available, otherwise use {@link #isServiceItem(ItemStack...)}.</p>
+     *
+     * @param item the material to check.
+     * @return true if the material is a possible service item.
+     */
     public boolean isServiceItem(@NotNull final Material item) {
         if (!item.isItem()) {
             throw new IllegalArgumentException("Material is not an obtainable item");
         }
 
-        return this.items.contains(item);
+        return this.items.matches(item);
     }
 
-    private @NotNull Set<UUID> _getServiceWorlds() {
-        final Permission wildcard = this.instance.getServer().getPluginManager().getPermission("services.world.*");
-        final Set<UUID> worlds = new HashSet<>();
+    private @NotNull Set<EquipmentSlot> _getServiceSlots() {
+        final Set<EquipmentSlot> slots = EnumSet.noneOf(EquipmentSlot.class);
 
-        for (final String name : this.storage.getStringList("service.worlds")) {
-            final World world = this.instance.getServer().getWorld(name);
+        for (final String name : this.storage.getStringList("service.slots")) {
+            try {
+                slots.add(EquipmentSlot.valueOf(name.toUpperCase()));
+            } catch (IllegalArgumentException ex) {
+                this.instance.getLogger().warning("Detected invalid service slot: Slot '" + name + "' does not exist.");
+            }
+        }
 
-            if (world == null) {
-                this.instance.getLogger().warning("Detected invalid service world: World '" + name + "' does not exist.");
+        if (slots.isEmpty()) {
+            slots.add(EquipmentSlot.HAND);
+        }
+
+        return Collections.unmodifiableSet(slots);
+    }
+
+    public boolean isServiceSlot(@NotNull final EquipmentSlot slot) {
+        return this.slots.contains(slot);
+    }
+
+    /**
+     * Returns whether other equipment slots than the main hand are service slots.
+     *
+     * @return true if items in other equipment slots can activate service mode.
+     */
+    public boolean isServiceEquipment() {
+        return this.slots.size() > 1 || !this.slots.contains(EquipmentSlot.HAND);
+    }
+
+    private @NotNull Set<String> _getServiceWorlds() {
+        final Set<String> worlds = new HashSet<>();
+
+        for (final String name : this.storage.getStringList("service.worlds")) {
+            if (name.isEmpty()) {
+                this.instance.getLogger().warning("Detected invalid service world: World name is empty.");
                 continue;
             }
 
-            if (wildcard != null) {
-                wildcard.getChildren().put("services.world." + world.getName().toLowerCase(), true);
+            if (name.indexOf('*') >= 0 || name.indexOf('?') >= 0) {
+                continue;
             }
 
-            worlds.add(world.getUID());
+            worlds.add(name.toLowerCase());
         }
 
         return Collections.unmodifiableSet(worlds);
     }
 
+    private @NotNull List<Pattern> _getServiceWorldPatterns() {
+        final List<Pattern> patterns = new ArrayList<>();
+
+        for (final String name : this.storage.getStringList("service.worlds")) {
+            if (name.indexOf('*') < 0 && name.indexOf('?') < 0) {
+                continue;
+            }
+
+            patterns.add(compileGlob(name, Pattern.CASE_INSENSITIVE));
+        }
+
+        return Collections.unmodifiableList(patterns);
+    }
+
+    /**
+     * Compiles the given glob pattern, in that {@code *} matches any sequence of characters and {@code ?} matches any
+     * single character. All other characters are matched literally.
+     *
+     * @param glob the glob pattern to compile.
+     * @param flags the match flags of the compiled pattern.
+     * @return the compiled pattern.
+     */
+    private static @NotNull Pattern compileGlob(@NotNull final String glob, final int flags) {
+        final StringBuilder regex = new StringBuilder();
+        int index = 0;
+
+        // Convert glob pattern to regex, by quoting all parts between the wildcards:
+        for (int wildcard = 0; wildcard < glob.length(); wildcard++) {
+            final char character = glob.charAt(wildcard);
+
+            if (character == '*' || character == '?') {
+                if (wildcard > index) {
+                    regex.append(Pattern.quote(glob.substring(index, wildcard)));
+                }
+
+                regex.append(character == '*' ? ".*" : ".");
+                index = wildcard + 1;
+            }
+        }
+
+        if (index < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(index)));
+        }
+
+        return Pattern.compile(regex.toString(), flags);
+    }
+
+    /**
+     * Returns whether the given world matches a configured service world name or pattern.
+     *
+     * <p>Note: This method performs a name based lookup and should only be used when a world gets registered. For
+     * other lookups, use {@link com.github.g4memas0n.services.WorldRegistry#isServiceWorld(World)}.</p>
+     *
+     * @param world the world to check.
+     * @return true if the world is a service world.
+     */
     public boolean isServiceWorld(@NotNull final World world) {
-        if (this.worlds.isEmpty()) {
+        if (this.worlds.isEmpty() && this.patterns.isEmpty()) {
             return true;
         }
 
-        return this.worlds.contains(world.getUID());
+        final String name = world.getName().toLowerCase();
+
+        if (this.worlds.contains(name)) {
+            return true;
+        }
+
+        for (final Pattern pattern : this.patterns) {
+            if (pattern.matcher(name).matches()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private @NotNull ZoneIndex _getServiceZones() {
+        final ConfigurationSection section = this.storage.getConfigurationSection("service.zones");
+        final ZoneIndex zones = new ZoneIndex();
+
+        if (section == null) {
+            return zones;
+        }
+
+        for (final String name : section.getKeys(false)) {
+            final ConfigurationSection zone = section.getConfigurationSection(name);
+
+            if (zone == null) {
+                this.instance.getLogger().warning("Detected invalid service zone: Zone '" + name + "' is malformed.");
+                continue;
+            }
+
+            final String world = zone.getString("world", "");
+
+            if (world == null || world.isEmpty()) {
+                this.instance.getLogger().warning("Detected invalid service zone: Zone '" + name + "' has no world.");
+                continue;
+            }
+
+            final List<String> points = zone.getStringList("points");
+
+            if (points.size() < 2) {
+                this.instance.getLogger().warning("Detected invalid service zone: Zone '" + name + "' has less than two points.");
+                continue;
+            }
+
+            final int[] xs = new int[points.size()];
+            final int[] zs = new int[points.size()];
+            boolean valid = true;
+
+            for (int index = 0; index < xs.length; index++) {
+                final String[] coordinates = points.get(index).split(",");
+
+                try {
+                    if (coordinates.length != 2) {
+                        throw new NumberFormatException();
+                    }
+
+                    xs[index] = Integer.parseInt(coordinates[0].trim());
+                    zs[index] = Integer.parseInt(coordinates[1].trim());
+                } catch (NumberFormatException ex) {
+                    this.instance.getLogger().warning("Detected invalid service zone: Point '" + points.get(index) + "' of zone '" + name + "' is malformed.");
+                    valid = false;
+                    break;
+                }
+            }
+
+            if (!valid) {
+                continue;
+            }
+
+            final int minY = zone.isInt("min-y") ? zone.getInt("min-y") : Integer.MIN_VALUE;
+            final int maxY = zone.isInt("max-y") ? zone.getInt("max-y") : Integer.MAX_VALUE;
+
+            if (minY > maxY) {
+                this.instance.getLogger().warning("Detected invalid service zone: Zone '" + name + "' has a minimum height above its maximum height.");
+                continue;
+            }
+
+            final int chunks = zones.add(world, name, xs, zs, minY, maxY);
+
+            if (chunks < 0) {
+                this.instance.getLogger().warning("Detected invalid service zone: Zone '" + name + "' exceeds " + ZoneIndex.MAX_CHUNKS + " chunks.");
+            } else if (chunks == 0) {
+                this.instance.getLogger().warning("Detected invalid service zone: Zone '" + name + "' covers no blocks.");
+            }
+        }
+
+        return zones;
+    }
+
+    /**
+     * Returns the service zones of the given world.
+     *
+     * <p>Note: This method performs a name based lookup and should only be used when a world gets registered. For
+     * other lookups, use {@link com.github.g4memas0n.services.WorldRegistry#isServiceZone(World,
+     * com.github.g4memas0n.services.PlayerState)}.</p>
+     *
+     * @param world the world to get the service zones for.
+     * @return the zone cells by chunk key or null if service is not limited to zones in the world.
+     */
+    public @Nullable Map<Long, ZoneIndex.Cell> getServiceZones(@NotNull final World world) {
+        return this.zones.getZones(world);
+    }
+
+    public boolean isServiceZones() {
+        return !this.zones.isEmpty();
+    }
+
+    private @NotNull String _getSyncBackend() {
+        final String backend = this.storage.getString("sync.backend", "none");
+
+        if (backend == null) {
+            return "none";
+        }
+
+        switch (backend.toLowerCase()) {
+            case "none":
+            case "file":
+            case "plugin-messaging":
+                return backend.toLowerCase();
+            default:
+                this.instance.getLogger().warning("Detected invalid sync backend: Backend '" + backend + "' does not exist.");
+                return "none";
+        }
+    }
+
+    /**
+     * Returns the name of the backend that synchronizes the service state across servers.
+     *
+     * @return the sync backend, one of {@code none}, {@code file} or {@code plugin-messaging}.
+     */
+    public @NotNull String getSyncBackend() {
+        return this.backend;
+    }
+
+    private @NotNull File _getSyncDirectory() {
+        final String path = this.storage.getString("sync.directory", "sync");
+        final File directory = new File(path != null && !path.isEmpty() ? path : "sync");
+
+        return directory.isAbsolute() ? directory : new File(this.instance.getDataFolder(), directory.getPath());
+    }
+
+    public @NotNull File getSyncDirectory() {
+        return this.directory;
+    }
+
+    private int _getSyncTimeout() {
+        final int timeout = this.storage.getInt("sync.timeout", 30);
+
+        if (timeout < 1 || timeout > 300) {
+            this.instance.getLogger().warning("Detected invalid sync timeout: Timeout is out of range.");
+
+            return 30;
+        }
+
+        return timeout;
+    }
+
+    public int getSyncTimeout() {
+        return this.timeout;
     }
 }
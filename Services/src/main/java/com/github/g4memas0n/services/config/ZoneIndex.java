@@ -0,0 +1,299 @@
+package com.github.g4memas0n.services.config;
+
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Zone Index, that indexes the configured service zones by chunk.
+ *
+ * <p>Each chunk that overlaps a zone is mapped to a {@link Cell}. A cell of a chunk that lies completely inside a zone
+ * without height limits is full, so that the zone lookup of a player is reduced to a single hash lookup of the chunk
+ * key, that is only required when the player crosses a chunk boundary. Other cells hold the zones that overlap the
+ * chunk, which get tested exactly with the block position of the player.</p>
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class ZoneIndex {
+
+    /**
+     * The maximum count of chunks of a single zone.
+     */
+    public static final int MAX_CHUNKS = 65536;
+
+    private final Map<String, Map<Long, Cell>> worlds;
+
+    public ZoneIndex() {
+        this.worlds = new HashMap<>();
+    }
+
+    /**
+     * Returns the key of the chunk with the given chunk coordinates.
+     *
+     * @param x the chunk x coordinate.
+     * @param z the chunk z coordinate.
+     * @return the chunk key.
+     */
+    public static long key(final int x, final int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Adds a zone with the given corner points and height limits to the given world.
+     *
+     * <p>Two points define a rectangular zone between both corner blocks, more points define a polygonal zone that
+     * contains all blocks whose center lies inside the polygon. Both height limits are inclusive.</p>
+     *
+     * @param world the name of the world.
+     * @param name the name of the zone.
+     * @param xs the x coordinates of the points.
+     * @param zs the z coordinates of the points.
+     * @param minY the minimum y coordinate or {@link Integer#MIN_VALUE} if the zone has no lower limit.
+     * @param maxY the maximum y coordinate or {@link Integer#MAX_VALUE} if the zone has no upper limit.
+     * @return the count of chunks that overlap the zone or -1 if the zone covers too many chunks.
+     */
+    public int add(@NotNull final String world, @NotNull final String name, final int[] xs, final int[] zs,
+                   final int minY, final int maxY) {
+        final Zone zone = new Zone(name, xs, zs, minY, maxY);
+
+        if ((long) ((zone.maxX >> 4) - (zone.minX >> 4) + 1) * ((zone.maxZ >> 4) - (zone.minZ >> 4) + 1) > MAX_CHUNKS) {
+            return -1;
+        }
+
+        final Map<Long, Cell> chunks = this.worlds.computeIfAbsent(world.toLowerCase(), key -> new HashMap<>());
+        final boolean unlimited = minY == Integer.MIN_VALUE && maxY == Integer.MAX_VALUE;
+        int count = 0;
+
+        for (int chunkX = zone.minX >> 4; chunkX <= zone.maxX >> 4; chunkX++) {
+            for (int chunkZ = zone.minZ >> 4; chunkZ <= zone.maxZ >> 4; chunkZ++) {
+                final int coverage = zone.cover(chunkX << 4, chunkZ << 4);
+
+                if (coverage == Zone.NONE) {
+                    continue;
+                }
+
+                final Cell cell = chunks.computeIfAbsent(key(chunkX, chunkZ), key -> new Cell());
+
+                if (coverage == Zone.FULL && unlimited) {
+                    cell.full = true;
+                } else {
+                    cell.zones = Arrays.copyOf(cell.zones, cell.zones.length + 1);
+                    cell.zones[cell.zones.length - 1] = zone;
+                }
+
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return this.worlds.isEmpty();
+    }
+
+    /**
+     * Returns the zone cells of the given world, mapped by the keys of the chunks that overlap a zone.
+     *
+     * <p>Note: This method performs a name based lookup and should only be used when a world gets registered. For
+     * other lookups, use {@link com.github.g4memas0n.services.WorldRegistry#isServiceZone(World,
+     * com.github.g4memas0n.services.PlayerState)}.</p>
+     *
+     * @param world the world to get the zones for.
+     * @return the zone cells by chunk key or null if service is not limited to zones in the world.
+     * @see #key(int, int)
+     */
+    public @Nullable Map<Long, Cell> getZones(@NotNull final World world) {
+        final Map<Long, Cell> chunks = this.worlds.get(world.getName().toLowerCase());
+
+        return chunks != null ? Collections.unmodifiableMap(chunks) : null;
+    }
+
+    /**
+     * Cell of a chunk, that overlaps at least one zone.
+     */
+    public static final class Cell {
+
+        private static final Zone[] EMPTY = new Zone[0];
+
+        private Zone[] zones;
+        private boolean full;
+
+        private Cell() {
+            this.zones = EMPTY;
+        }
+
+        /**
+         * Returns whether the whole chunk of this cell belongs to a zone.
+         *
+         * @return true if no exact test is required for this chunk.
+         */
+        public boolean isFull() {
+            return this.full;
+        }
+
+        /**
+         * Returns whether the given block of the chunk of this cell belongs to a zone.
+         *
+         * @param x the block x coordinate.
+         * @param y the block y coordinate.
+         * @param z the block z coordinate.
+         * @return true if the block belongs to a zone.
+         */
+        public boolean contains(final int x, final int y, final int z) {
+            if (this.full) {
+                return true;
+            }
+
+            for (final Zone zone : this.zones) {
+                if (zone.contains(x, y, z)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * A single service zone.
+     */
+    private static final class Zone {
+
+        private static final int NONE = 0;
+        private static final int PARTIAL = 1;
+        private static final int FULL = 2;
+
+        private final String name;
+        private final int[] xs;
+        private final int[] zs;
+        private final int minX, minY, minZ;
+        private final int maxX, maxY, maxZ;
+
+        private Zone(@NotNull final String name, final int[] xs, final int[] zs, final int minY, final int maxY) {
+            int minX = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+            int maxX = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+
+            for (int index = 0; index < xs.length; index++) {
+                minX = Math.min(minX, xs[index]);
+                minZ = Math.min(minZ, zs[index]);
+                maxX = Math.max(maxX, xs[index]);
+                maxZ = Math.max(maxZ, zs[index]);
+            }
+
+            this.name = name;
+            this.xs = xs;
+            this.zs = zs;
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+        }
+
+        private boolean isRectangle() {
+            return this.xs.length == 2;
+        }
+
+        private boolean contains(final int x, final int y, final int z) {
+            if (y < this.minY || y > this.maxY || x < this.minX || x > this.maxX || z < this.minZ || z > this.maxZ) {
+                return false;
+            }
+
+            return this.isRectangle() || this.contains(x + 0.5, z + 0.5);
+        }
+
+        private boolean contains(final double x, final double z) {
+            boolean inside = false;
+
+            // Ray casting, count the crossed polygon edges on the way from the point to infinity:
+            for (int current = 0, previous = this.xs.length - 1; current < this.xs.length; previous = current++) {
+                if ((this.zs[current] > z) != (this.zs[previous] > z)
+                        && x < (double) (this.xs[previous] - this.xs[current]) * (z - this.zs[current])
+                        / (this.zs[previous] - this.zs[current]) + this.xs[current]) {
+                    inside = !inside;
+                }
+            }
+
+            return inside;
+        }
+
+        /**
+         * Returns how the chunk with the given first block coordinates is covered by this zone.
+         *
+         * @param x the x coordinate of the first block of the chunk.
+         * @param z the z coordinate of the first block of the chunk.
+         * @return the coverage of the chunk, either {@link #NONE}, {@link #PARTIAL} or {@link #FULL}.
+         */
+        private int cover(final int x, final int z) {
+            if (this.isRectangle()) {
+                if (x + 15 < this.minX || x > this.maxX || z + 15 < this.minZ || z > this.maxZ) {
+                    return NONE;
+                }
+
+                return x >= this.minX && x + 15 <= this.maxX && z >= this.minZ && z + 15 <= this.maxZ ? FULL : PARTIAL;
+            }
+
+            // The block centers of the chunk span a square, that is either crossed by an edge of the polygon or lies
+            // completely inside or outside of the polygon:
+            final double fromX = x + 0.5, toX = x + 15.5;
+            final double fromZ = z + 0.5, toZ = z + 15.5;
+
+            for (int current = 0, previous = this.xs.length - 1; current < this.xs.length; previous = current++) {
+                if (intersects(this.xs[previous], this.zs[previous], this.xs[current], this.zs[current],
+                        fromX, fromZ, toX, toZ)) {
+                    return PARTIAL;
+                }
+            }
+
+            return this.contains(fromX, fromZ) ? FULL : NONE;
+        }
+
+        /**
+         * Returns whether the given line segment intersects the given square, by clipping the segment to the square.
+         */
+        private static boolean intersects(final double x1, final double z1, final double x2, final double z2,
+                                          final double fromX, final double fromZ, final double toX, final double toZ) {
+            final double dx = x2 - x1;
+            final double dz = z2 - z1;
+            final double[] p = {-dx, dx, -dz, dz};
+            final double[] q = {x1 - fromX, toX - x1, z1 - fromZ, toZ - z1};
+            double enter = 0.0, exit = 1.0;
+
+            for (int index = 0; index < p.length; index++) {
+                if (p[index] == 0.0) {
+                    if (q[index] < 0.0) {
+                        return false;
+                    }
+
+                    continue;
+                }
+
+                final double t = q[index] / p[index];
+
+                if (p[index] < 0.0) {
+                    enter = Math.max(enter, t);
+                } else {
+                    exit = Math.min(exit, t);
+                }
+
+                if (enter > exit) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return this.name;
+        }
+    }
+}
@@ -1,17 +1,21 @@
 package com.github.g4memas0n.services.listener;
 
-import com.github.g4memas0n.services.util.Messages;
-import org.bukkit.GameMode;
-import org.bukkit.World;
-import org.bukkit.World.Environment;
+import com.github.g4memas0n.services.PlayerState;
+import com.github.g4memas0n.services.condition.ConditionEngine;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerGameModeChangeEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * The Condition Listener, listening for events to check for service conditions.
@@ -24,123 +28,94 @@ public final class ConditionListener extends BasicListener {
     public ConditionListener() { }
 
     @EventHandler(priority = EventPriority.MONITOR)
-    public void onPlayerJoin(@NotNull final PlayerJoinEvent event) {
-        this.instance.runConditionCheck(event.getPlayer());
+    public void onPlayerPreLogin(@NotNull final AsyncPlayerPreLoginEvent event) {
+        // Note: this event fires asynchronously, so the blocking prefetch of the synchronized service state and the
+        // load of the item vault are done here. The requirements and the service items get evaluated on the join, as
+        // they depend on the permissions, the location and the inventory of the joined player.
+        if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            this.getManager().prepareState(event.getUniqueId(), this.instance.getSync().prefetch(event.getUniqueId()));
+            this.instance.getVault().load(event.getUniqueId());
+        }
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
-    public void onPlayerQuit(@NotNull final PlayerQuitEvent event) {
-        if (this.getManager().removeCondition(event.getPlayer())) {
-            this.getManager().removeService(event.getPlayer());
+    public void onPlayerLogin(@NotNull final PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            this.getManager().discardState(event.getPlayer().getUniqueId());
+            this.instance.getVault().discard(event.getPlayer().getUniqueId());
         }
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
-    public void onPlayerChangedWorldEvent(@NotNull final PlayerChangedWorldEvent event) {
-        // Only perform removing checks when player is in condition:
-        if (this.getManager().isCondition(event.getPlayer())) {
-            final Player player = event.getPlayer();
-            final World world = player.getWorld();
-
-            if (this.getSettings().isServiceWorld(world)) {
-                // Check for world permission and remove player from condition if it is not permitted:
-                if (this.getSettings().isPermissionPerWorld() && !player.hasPermission("services.world." + world.getName().toLowerCase())) {
-                    if (this.getSettings().isDebug()) {
-                        this.getLogger().info("Player '" + player.getName() + "' is missing permission for service world: " + world.getName());
-                    }
-
-                    if (this.getManager().removeCondition(player) && this.getManager().removeService(player)) {
-                        player.sendMessage(Messages.tl("service.denied.world", world.getName()));
-                    }
-
-                    return;
-                }
-
-                final Environment environment = world.getEnvironment();
-
-                if (this.getSettings().isServiceEnvironment(environment)) {
-                    // Check for environment permission and remove player from condition if it is not permitted:
-                    if (this.getSettings().isPermissionPerEnvironment() && !player.hasPermission("services.environment." + environment.name().toLowerCase())) {
-                        if (this.getSettings().isDebug()) {
-                            this.getLogger().info("Player '" + player.getName() + "' is missing permission for service environment: " + environment.name());
-                        }
-
-                        if (this.getManager().removeCondition(player) && this.getManager().removeService(player)) {
-                            player.sendMessage(Messages.tlEnum("service.denied.environment", environment));
-                        }
-
-                        return;
-                    }
-
-                    if (this.getSettings().isDebug()) {
-                        this.getLogger().info("Player '" + player.getName() + "' is now in service world: " + world.getName() + "(environment: " + environment.name() + ")");
-                    }
-
-                    return; // Player is still in a service world and service environment.
-                }
-
-                // Player is not in a service environment, remove it from condition:
-                if (this.getManager().removeCondition(player)) {
-                    if (this.getSettings().isDebug()) {
-                        this.getLogger().info("Player '" + player.getName() + "' is now in non-service environment: " + environment.name());
-                    }
-
-                    if (this.getManager().removeService(player)) {
-                        player.sendMessage(Messages.tlEnum("service.disabled.environment", environment));
-                    }
-                }
-
-                return;
-            }
+    public void onPlayerJoin(@NotNull final PlayerJoinEvent event) {
+        final PlayerState state = this.getManager().getState(event.getPlayer());
 
-            // Player is not in a service world, remove it from condition:
-            if (this.getManager().removeCondition(player)) {
-                if (this.getSettings().isDebug()) {
-                    this.getLogger().info("Player '" + player.getName() + "' is now in non-service world: " + world.getName());
-                }
+        // Apply the prepared service state of the player, if it was in service on another server:
+        if (!state.isHandoff()) {
+            state.setHandoff(this.instance.getSync().join(event.getPlayer()));
+        }
 
-                if (this.getManager().removeService(player)) {
-                    player.sendMessage(Messages.tl("service.disabled.world", world.getName()));
-                }
-            }
+        this.instance.runConditionCheck(event.getPlayer());
+        state.setHandoff(false);
+    }
 
-            return;
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(@NotNull final PlayerQuitEvent event) {
+        final boolean service = this.getManager().isService(event.getPlayer());
+
+        // Note: the ended service state is not published, as it would contradict the handoff below.
+        if (this.getManager().removeCondition(event.getPlayer())) {
+            this.getManager().removeService(event.getPlayer(), false);
         }
 
-        // Run complete condition check:
-        this.instance.runConditionCheck(event.getPlayer());
+        // Publish the service state before quitting, so that it can be taken over by another server:
+        this.instance.getSync().handoff(event.getPlayer(), service);
+
+        this.getManager().removeState(event.getPlayer());
+        this.instance.getVault().unload(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorldEvent(@NotNull final PlayerChangedWorldEvent event) {
+        // Only re-evaluate the requirements that depend on the world:
+        this.instance.getEngine().update(event.getPlayer(), ConditionEngine.WORLD);
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerGameModeChangeEvent(@NotNull final PlayerGameModeChangeEvent event) {
-        // Only perform removing checks when player is in condition:
-        if (this.getManager().isCondition(event.getPlayer())) {
-            final Player player = event.getPlayer();
-            final GameMode mode = event.getNewGameMode();
+        final Player player = event.getPlayer();
 
-            if (this.getSettings().isServiceGameMode(mode)) {
-                if (this.getSettings().isDebug()) {
-                    this.getLogger().info("Player '" + player.getName() + "' is now in service game-mode: " + mode.name());
-                }
+        // Note: this event fires before the game-mode gets changed, so the new game-mode is passed.
+        // Only re-evaluate the requirements that depend on the game-mode:
+        this.instance.getEngine().update(player, event.getNewGameMode(), player.getWorld(), ConditionEngine.GAME_MODE);
+    }
 
-                return; // Player is still in a service game-mode.
-            }
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(@NotNull final PlayerMoveEvent event) {
+        if (this.getSettings().isIdlePeriod()) {
+            this.getManager().markActive(event.getPlayer());
+        }
 
-            // Player is not in a service game-mode, remove it from condition:
-            if (this.getManager().removeCondition(player)) {
-                if (this.getSettings().isDebug()) {
-                    this.getLogger().info("Player '" + player.getName() + "' is now in non-service game-mode: " + mode.name());
-                }
+        this.move(event.getPlayer(), event.getFrom(), event.getTo());
+    }
 
-                if (this.getManager().removeService(player)) {
-                    player.sendMessage(Messages.tlEnum("service.disabled.game-mode", mode));
-                }
-            }
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(@NotNull final PlayerTeleportEvent event) {
+        this.move(event.getPlayer(), event.getFrom(), event.getTo());
+    }
 
+    private void move(@NotNull final Player player, @NotNull final Location from, @Nullable final Location to) {
+        if (to == null || !this.getSettings().isServiceZones()) {
             return;
         }
 
-        // Schedule complete condition check to next server tick:
-        this.instance.scheduleConditionCheck(event.getPlayer());
+        // Note: teleports to other worlds are handled when the world has changed.
+        // Only re-evaluate the requirements that depend on the position, if the player changes the block. The engine
+        // skips block changes that do not cross a chunk boundary, unless the chunk is only partially in a zone:
+        if (from.getBlockX() != to.getBlockX() || from.getBlockY() != to.getBlockY() || from.getBlockZ() != to.getBlockZ()) {
+            if (from.getWorld() == to.getWorld()) {
+                this.instance.getEngine().move(player, to);
+            }
+        }
     }
 }
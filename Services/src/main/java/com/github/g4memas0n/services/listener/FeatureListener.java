@@ -1,5 +1,7 @@
 package com.github.g4memas0n.services.listener;
 
+import com.github.g4memas0n.services.ItemTracker;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -10,9 +12,17 @@ import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.player.PlayerBucketEmptyEvent;
 import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerItemDamageEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * The Feature Listener, listening for events related for additional plugin features.
@@ -22,7 +32,18 @@ import java.util.Iterator;
  */
 public final class FeatureListener extends BasicListener {
 
-    public FeatureListener() { }
+    /**
+     * The inventory slot of the item in the off hand.
+     */
+    private static final int OFF_HAND = 40;
+
+    private final Map<UUID, List<Refill>> refills;
+
+    private BukkitTask drain;
+
+    public FeatureListener() {
+        this.refills = new HashMap<>();
+    }
 
     /*
      * Event Listener for the disabled drops configuration feature.
@@ -36,23 +57,87 @@ public final class FeatureListener extends BasicListener {
 
             // Only filter items when player is allowed to use service:
             if (player.hasPermission("services.service")) {
-                for (final Iterator<ItemStack> iterator = event.getDrops().iterator(); iterator.hasNext();) {
-                    final Material material = iterator.next().getType();
+                final List<ItemStack> drops = event.getDrops();
+                final List<ItemStack> removed = new ArrayList<>();
+                final BitSet checked = new BitSet();
+                final BitSet permitted = new BitSet();
+                int kept = 0;
+
+                // Compact the kept drops in a single pass, instead of removing each disabled drop:
+                for (int index = 0; index < drops.size(); index++) {
+                    final ItemStack drop = drops.get(index);
+
+                    if (drop != null && this.getSettings().isDisabledDrop(drop.getType())) {
+                        if (!this.getSettings().isPermissionPerItem()) {
+                            removed.add(drop);
+                            continue;
+                        }
 
-                    if (this.getSettings().isDisabledDrop(material)) {
-                        if (this.getSettings().isPermissionPerItem()) {
-                            if (!player.hasPermission("services.item." + material.getKey().getKey())) {
-                                continue;
+                        final int ordinal = drop.getType().ordinal();
+
+                        // Check the item permission only once per material:
+                        if (!checked.get(ordinal)) {
+                            checked.set(ordinal);
+
+                            if (player.hasPermission("services.item." + drop.getType().getKey().getKey())) {
+                                permitted.set(ordinal);
                             }
                         }
 
-                        iterator.remove();
+                        if (permitted.get(ordinal)) {
+                            removed.add(drop);
+                            continue;
+                        }
+                    }
+
+                    if (kept != index) {
+                        drops.set(kept, drop);
+                    }
+
+                    kept++;
+                }
+
+                if (kept < drops.size()) {
+                    drops.subList(kept, drops.size()).clear();
+                }
+
+                // Keep the removed drops in the vault of the player, to give them back on respawn:
+                if (this.getSettings().isKeepDisabledDrops() && !removed.isEmpty()) {
+                    this.instance.getVault().store(player, removed);
+
+                    if (this.getSettings().isDebug()) {
+                        this.getLogger().info("Stored " + removed.size() + " disabled drops of player: " + player.getName());
                     }
                 }
             }
         }
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(@NotNull final PlayerRespawnEvent event) {
+        final Player player = event.getPlayer();
+
+        // Note: the vault is held in memory, so no disk access is performed here.
+        final ItemStack[] items = this.instance.getVault().restore(player);
+
+        if (items.length > 0) {
+            final Location location = event.getRespawnLocation();
+
+            // Drop the items that do not fit into the inventory at the respawn location:
+            for (final ItemStack item : player.getInventory().addItem(items).values()) {
+                if (location.getWorld() != null) {
+                    location.getWorld().dropItemNaturally(location, item);
+                }
+            }
+
+            this.instance.getTracker().markAll(player);
+
+            if (this.getSettings().isDebug()) {
+                this.getLogger().info("Restored " + items.length + " disabled drops of player: " + player.getName());
+            }
+        }
+    }
+
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onPlayerItemDrop(@NotNull final PlayerDropItemEvent event) {
         // Only perform the checks when disabled drops is enabled.
@@ -96,9 +181,10 @@ public final class FeatureListener extends BasicListener {
                 return;
             }
 
-            if (this.getSettings().isDisabledEffect(event.getModifiedType())) {
-                final Player player = (Player) event.getEntity();
+            final Player player = (Player) event.getEntity();
 
+            // Check for the precomputed disabled effects of the world first, as it is cheaper than the service lookup:
+            if (this.instance.getWorlds().isDisabledEffect(player.getWorld(), event.getModifiedType())) {
                 // Only cancel effect when player is in service:
                 if (this.getManager().isService(player)) {
                     event.setCancelled(true);
@@ -125,24 +211,63 @@ public final class FeatureListener extends BasicListener {
                 // Only perform feature when player is in service:
                 if (this.getManager().isService(player)) {
                     if (player.getInventory().getItemInMainHand().getType().equals(event.getBucket())) {
-                        if (event.getItemStack() != null) {
-                            event.setItemStack(new ItemStack(event.getBucket(), event.getItemStack().getAmount()));
-                        } else {
-                            event.setItemStack(new ItemStack(event.getBucket()));
-                        }
-
                         if (this.getSettings().isDebug()) {
                             this.getLogger().info("Filled service bucket '" + event.getBucket() + "' of service player: " + player.getName());
                         }
 
-                        // Note: this event ignores the resulting item-stack.
-                        this.instance.runTask(() -> player.getInventory().setItemInMainHand(event.getItemStack()));
+                        // Note: this event ignores the resulting item-stack, so the bucket gets refilled next tick.
+                        // A player may empty multiple buckets in the same tick, so all refills of the player are kept.
+                        this.refills.computeIfAbsent(player.getUniqueId(), key -> new ArrayList<>(1))
+                                .add(new Refill(player.getInventory().getHeldItemSlot(), event.getBucket()));
+
+                        // Note: the drain task gets cancelled when the plugin gets disabled.
+                        if (this.drain == null || this.drain.isCancelled()) {
+                            this.drain = this.instance.runTask(this::drainRefills);
+                        }
                     }
                 }
             }
         }
     }
 
+    /**
+     * Refills the emptied service buckets of all players, that were collected during the last tick.
+     */
+    private void drainRefills() {
+        for (final Map.Entry<UUID, List<Refill>> entry : this.refills.entrySet()) {
+            final Player player = this.instance.getServer().getPlayer(entry.getKey());
+
+            if (player == null) {
+                continue;
+            }
+
+            for (final Refill refill : entry.getValue()) {
+                final ItemStack item = player.getInventory().getItem(refill.slot);
+
+                // Refill the emptied bucket in place, the item is a mirror of the inventory slot:
+                if (item != null && item.getType() == Material.BUCKET && item.getAmount() == 1) {
+                    item.setType(refill.bucket);
+
+                    this.instance.getTracker().mark(player, refill.slot);
+                }
+            }
+        }
+
+        this.refills.clear();
+        this.drain = null;
+    }
+
+    private static final class Refill {
+
+        private final int slot;
+        private final Material bucket;
+
+        private Refill(final int slot, @NotNull final Material bucket) {
+            this.slot = slot;
+            this.bucket = bucket;
+        }
+    }
+
     /*
      * Event Listener for the unlimited durability configuration feature.
      */
@@ -151,12 +276,19 @@ public final class FeatureListener extends BasicListener {
     public void onPlayerItemDamage(@NotNull final PlayerItemDamageEvent event) {
         // Only perform the checks when unlimited durability is enabled.
         if (this.getSettings().isUnlimitedDurability()) {
-            if (this.getSettings().isServiceItem(event.getItem().getType())) {
+            final Material material = event.getItem().getType();
+
+            // Check for service material first, as it does not depend on the item meta:
+            if (this.getSettings().isServiceItem(material) && !ItemTracker.isArmor(material)) {
                 final Player player = event.getPlayer();
 
                 // Only perform feature when player is in service:
                 if (this.getManager().isService(player)) {
-                    if (player.getInventory().getItemInMainHand().equals(event.getItem())) {
+                    final int slot = this.getDamagedSlot(player.getInventory(), event.getItem());
+                    final ItemStack hand = slot >= 0 ? player.getInventory().getItem(slot) : null;
+
+                    // The service item verdict of the damaged slot is cached until the inventory changes:
+                    if (hand != null && this.instance.isServiceItem(player, slot, hand)) {
                         event.setCancelled(true);
 
                         if (this.getSettings().isDebug()) {
@@ -167,4 +299,24 @@ public final class FeatureListener extends BasicListener {
             }
         }
     }
+
+    /**
+     * Returns the inventory slot of the given damaged item, that is held in the main hand or in the off hand.
+     *
+     * @param inventory the inventory of the player.
+     * @param item the damaged item.
+     * @return the inventory slot of the damaged item or -1 if the item is not held in any hand.
+     */
+    private int getDamagedSlot(@NotNull final PlayerInventory inventory, @NotNull final ItemStack item) {
+        final boolean main = inventory.getItemInMainHand().getType() == item.getType();
+        final boolean off = inventory.getItemInOffHand().getType() == item.getType();
+
+        // Identify the hand by material, only items of the same material in both hands are compared. The damaged item
+        // mirrors the item in its hand, so that the comparison succeeds by identity without reading the item meta:
+        if (main && (!off || inventory.getItemInMainHand().isSimilar(item))) {
+            return inventory.getHeldItemSlot();
+        }
+
+        return off ? OFF_HAND : -1;
+    }
 }
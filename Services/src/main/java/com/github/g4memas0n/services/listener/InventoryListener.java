@@ -0,0 +1,232 @@
+package com.github.g4memas0n.services.listener;
+
+import com.github.g4memas0n.services.ItemTracker;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event.Result;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockDispenseArmorEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.CauldronLevelChangeEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerArmorStandManipulateEvent;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.player.PlayerBucketEntityEvent;
+import org.bukkit.event.player.PlayerBucketFillEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.PlayerInventory;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The Inventory Listener, listening for events that change the inventory of players.
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class InventoryListener extends BasicListener {
+
+    /**
+     * The inventory slot of the off-hand item.
+     */
+    private static final int OFF_HAND = 40;
+
+    public InventoryListener() { }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(@NotNull final InventoryClickEvent event) {
+        if (!(event.getWhoClicked() instanceof Player)) {
+            return;
+        }
+
+        final Player player = (Player) event.getWhoClicked();
+
+        // Note: this event fires before the items gets moved.
+        if (event.getAction() == InventoryAction.MOVE_TO_OTHER_INVENTORY
+                || event.getAction() == InventoryAction.COLLECT_TO_CURSOR
+                || event.getAction() == InventoryAction.UNKNOWN) {
+            // Affected slots are unknown, track whole inventory:
+            this.instance.getTracker().markAll(player);
+        } else {
+            if (event.getClickedInventory() instanceof PlayerInventory) {
+                this.instance.getTracker().mark(player, event.getSlot());
+            }
+
+            if (event.getHotbarButton() >= 0) {
+                this.instance.getTracker().mark(player, event.getHotbarButton());
+            }
+
+            if (event.getClick() == ClickType.SWAP_OFFHAND) {
+                this.instance.getTracker().mark(player, OFF_HAND);
+            }
+        }
+
+        this.onInventoryChange(player);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(@NotNull final InventoryDragEvent event) {
+        if (!(event.getWhoClicked() instanceof Player)) {
+            return;
+        }
+
+        final Player player = (Player) event.getWhoClicked();
+        final InventoryView view = event.getView();
+
+        // Note: this event fires before the items gets placed.
+        for (final int slot : event.getRawSlots()) {
+            if (view.getInventory(slot) instanceof PlayerInventory) {
+                this.instance.getTracker().mark(player, view.convertSlot(slot));
+            }
+        }
+
+        this.onInventoryChange(player);
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onInventoryClose(@NotNull final InventoryCloseEvent event) {
+        if (!(event.getPlayer() instanceof Player)) {
+            return;
+        }
+
+        // Note: this event is handled before the service check on close gets performed.
+        // Inventories may be changed by commands or other plugins without any event, track whole inventory:
+        this.instance.getTracker().markAll((Player) event.getPlayer());
+        this.onInventoryChange((Player) event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerDeath(@NotNull final PlayerDeathEvent event) {
+        // Note: this event fires before the inventory gets cleared, including the equipment slots.
+        this.instance.getTracker().markAll(event.getEntity());
+        this.onInventoryChange(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(@NotNull final PlayerRespawnEvent event) {
+        this.instance.getTracker().markAll(event.getPlayer());
+        this.onInventoryChange(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerItemPickup(@NotNull final EntityPickupItemEvent event) {
+        if (!(event.getEntity() instanceof Player)) {
+            return;
+        }
+
+        final Player player = (Player) event.getEntity();
+
+        // Note: this event fires before the item gets picked up.
+        // Only non-service items can be picked up without changing the tracked slots:
+        if (this.getSettings().isServiceItem(event.getItem().getItemStack())) {
+            this.instance.getTracker().markAll(player);
+        }
+
+        this.onInventoryChange(player);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerItemDrop(@NotNull final PlayerDropItemEvent event) {
+        // Note: this event fires after the item got removed from the held slot.
+        this.instance.getTracker().mark(event.getPlayer(), event.getPlayer().getInventory().getHeldItemSlot());
+        this.onInventoryChange(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerItemBreak(@NotNull final PlayerItemBreakEvent event) {
+        // Note: this event fires before the item gets removed, from any equipment slot.
+        this.instance.getTracker().markAll(event.getPlayer());
+        this.onInventoryChange(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerItemSwapHand(@NotNull final PlayerSwapHandItemsEvent event) {
+        this.instance.getTracker().mark(event.getPlayer(), event.getPlayer().getInventory().getHeldItemSlot());
+        this.instance.getTracker().mark(event.getPlayer(), OFF_HAND);
+        this.onInventoryChange(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerArmorEquip(@NotNull final PlayerInteractEvent event) {
+        if (event.getAction() != Action.RIGHT_CLICK_AIR && event.getAction() != Action.RIGHT_CLICK_BLOCK) {
+            return;
+        }
+
+        // Note: this event fires before the armor gets equipped.
+        if (event.useItemInHand() != Result.DENY && event.getItem() != null && ItemTracker.isArmor(event.getMaterial())) {
+            this.instance.getTracker().mark(event.getPlayer(), event.getHand() == EquipmentSlot.HAND
+                    ? event.getPlayer().getInventory().getHeldItemSlot() : OFF_HAND);
+            this.instance.getTracker().markArmor(event.getPlayer());
+            this.onInventoryChange(event.getPlayer());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerArmorDispense(@NotNull final BlockDispenseArmorEvent event) {
+        if (event.getTargetEntity() instanceof Player) {
+            this.instance.getTracker().markArmor((Player) event.getTargetEntity());
+            this.onInventoryChange((Player) event.getTargetEntity());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerArmorStand(@NotNull final PlayerArmorStandManipulateEvent event) {
+        this.instance.getTracker().markAll(event.getPlayer());
+        this.onInventoryChange(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerBlockPlace(@NotNull final BlockPlaceEvent event) {
+        this.instance.getTracker().mark(event.getPlayer(), event.getHand() == EquipmentSlot.HAND
+                ? event.getPlayer().getInventory().getHeldItemSlot() : OFF_HAND);
+        this.onInventoryChange(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerBucketEmpty(@NotNull final PlayerBucketEmptyEvent event) {
+        this.onPlayerHandChange(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerBucketEntity(@NotNull final PlayerBucketEntityEvent event) {
+        this.onPlayerHandChange(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerBucketFill(@NotNull final PlayerBucketFillEvent event) {
+        this.onPlayerHandChange(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerCauldronChange(@NotNull final CauldronLevelChangeEvent event) {
+        if (event.getEntity() instanceof Player) {
+            this.onPlayerHandChange((Player) event.getEntity());
+        }
+    }
+
+    public void onPlayerHandChange(@NotNull final Player player) {
+        // Note: these events fire before the item in one of the hands gets changed.
+        this.instance.getTracker().mark(player, player.getInventory().getHeldItemSlot());
+        this.instance.getTracker().mark(player, OFF_HAND);
+        this.onInventoryChange(player);
+    }
+
+    public void onInventoryChange(@NotNull final Player player) {
+        // Only invalidate cached verdicts when they depend on item metadata:
+        if (this.getSettings().isServiceItemMeta()) {
+            this.getManager().getState(player).invalidateItems();
+        }
+    }
+}
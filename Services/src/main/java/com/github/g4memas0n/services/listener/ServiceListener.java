@@ -1,8 +1,12 @@
 package com.github.g4memas0n.services.listener;
 
+import com.github.g4memas0n.services.ItemTracker;
 import org.bukkit.entity.Player;
+import org.bukkit.event.Event.Result;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockDispenseArmorEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.block.CauldronLevelChangeEvent;
 import org.bukkit.event.block.CauldronLevelChangeEvent.ChangeReason;
@@ -16,11 +20,11 @@ import org.bukkit.event.player.PlayerBucketEvent;
 import org.bukkit.event.player.PlayerBucketFillEvent;
 import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerInteractEntityEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerItemBreakEvent;
 import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
 import org.bukkit.event.player.PlayerSwapHandItemsEvent;
-import org.bukkit.inventory.EquipmentSlot;
-import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -45,9 +49,45 @@ public final class ServiceListener extends BasicListener {
         }
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerArmorEquip(@NotNull final PlayerInteractEvent event) {
+        if (event.getAction() != Action.RIGHT_CLICK_AIR && event.getAction() != Action.RIGHT_CLICK_BLOCK) {
+            return;
+        }
+
+        // Note: this event fires before the armor gets equipped.
+        // Only schedule check when service slots are tracked and player is in condition:
+        if (this.instance.getTracker().isEnabled() && this.getManager().isCondition(event.getPlayer())) {
+            if (event.useItemInHand() == Result.DENY || event.getItem() == null || !ItemTracker.isArmor(event.getMaterial())) {
+                return;
+            }
+
+            if (this.getSettings().isServiceItem(event.getItem())) {
+                // Player has equipped a service item, schedule a check:
+                this.instance.scheduleServiceCheck(event.getPlayer());
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerArmorDispense(@NotNull final BlockDispenseArmorEvent event) {
+        if (!(event.getTargetEntity() instanceof Player)) {
+            return;
+        }
+
+        // Note: this event fires before the armor gets equipped.
+        // Only schedule check when service slots are tracked and player is in condition:
+        if (this.instance.getTracker().isEnabled() && this.getManager().isCondition((Player) event.getTargetEntity())) {
+            if (this.getSettings().isServiceItem(event.getItem())) {
+                // Player got equipped with a service item, schedule a check:
+                this.instance.scheduleServiceCheck((Player) event.getTargetEntity());
+            }
+        }
+    }
+
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerBlockPlace(@NotNull final BlockPlaceEvent event) {
-        if (event.getHand() != EquipmentSlot.HAND) {
+        if (!this.getSettings().isServiceSlot(event.getHand())) {
             return;
         }
 
@@ -139,14 +179,14 @@ public final class ServiceListener extends BasicListener {
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerInteractEntity(@NotNull final PlayerInteractEntityEvent event) {
-        if (event.getHand() != EquipmentSlot.HAND) {
+        if (!this.getSettings().isServiceSlot(event.getHand())) {
             return;
         }
 
         // Note: this event fires before the entity interaction occurs.
         // Only schedule check when player is in condition:
         if (this.getManager().isCondition(event.getPlayer())) {
-            if (this.getSettings().isServiceItem(event.getPlayer().getInventory().getItemInMainHand())) {
+            if (this.getSettings().isServiceItem(event.getPlayer().getInventory().getItem(event.getHand()))) {
                 if (this.getManager().isGrace(event.getPlayer())) {
                     return;
                 }
@@ -183,6 +223,7 @@ public final class ServiceListener extends BasicListener {
                 }
             }
 
+            this.getManager().getState((Player) event.getEntity()).addPrevented(event.getCause(), event.getDamage());
             event.setCancelled(true);
         }
     }
@@ -221,12 +262,14 @@ public final class ServiceListener extends BasicListener {
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerItemHeld(@NotNull final PlayerItemHeldEvent event) {
+        if (this.getSettings().isIdlePeriod()) {
+            this.getManager().markActive(event.getPlayer());
+        }
+
         // Only perform check when player is in condition:
         if (this.getManager().isCondition(event.getPlayer())) {
-            final ItemStack item = event.getPlayer().getInventory().getItem(event.getNewSlot());
-
             // Player has changed the held item, perform a check:
-            this.instance.runServiceCheck(event.getPlayer(), item);
+            this.instance.runServiceCheck(event.getPlayer(), event.getNewSlot());
         }
     }
 
@@ -254,8 +297,25 @@ public final class ServiceListener extends BasicListener {
     public void onPlayerItemSwapHand(@NotNull final PlayerSwapHandItemsEvent event) {
         // Only perform check when player is in condition:
         if (this.getManager().isCondition(event.getPlayer())) {
+            if (this.instance.getTracker().isEnabled()) {
+                // Note: this event fires before the items gets swapped.
+                // Player has swapped the held item with the off-hand item, schedule a check:
+                this.instance.scheduleServiceCheck(event.getPlayer());
+                return;
+            }
+
             // Player has swapped the held item, perform a check:
             this.instance.runServiceCheck(event.getPlayer(), event.getMainHandItem());
         }
     }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(@NotNull final PlayerRespawnEvent event) {
+        // Note: this event fires before the player gets respawned, after the inventory got cleared on death.
+        // Only schedule check when player is in condition:
+        if (this.getManager().isCondition(event.getPlayer())) {
+            // Player may have lost its service items, schedule a check:
+            this.instance.scheduleServiceCheck(event.getPlayer());
+        }
+    }
 }
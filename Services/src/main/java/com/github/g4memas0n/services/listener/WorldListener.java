@@ -0,0 +1,28 @@
+package com.github.g4memas0n.services.listener;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The World Listener, listening for events to keep the world registry up to date.
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class WorldListener extends BasicListener {
+
+    public WorldListener() { }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(@NotNull final WorldLoadEvent event) {
+        this.instance.getWorlds().register(event.getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(@NotNull final WorldUnloadEvent event) {
+        this.instance.getWorlds().unregister(event.getWorld());
+    }
+}
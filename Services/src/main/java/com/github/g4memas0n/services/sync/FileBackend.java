@@ -0,0 +1,96 @@
+package com.github.g4memas0n.services.sync;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * File Backend, that stores sync frames in a directory that is shared between local servers.
+ *
+ * <p>This backend is a stand-in for local test networks. Each player has its own frame file, that gets overwritten
+ * on each publish and gets read when the player logs in. All writes are performed in order by a single background
+ * thread.</p>
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class FileBackend implements SyncBackend {
+
+    private final File directory;
+
+    private ExecutorService writer;
+    private SyncManager manager;
+
+    public FileBackend(@NotNull final File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public void open(@NotNull final SyncManager manager) {
+        if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+            manager.getInstance().getLogger().warning("Unable to create sync directory: " + this.directory.getPath());
+        }
+
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "Services-Sync-Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.manager = manager;
+    }
+
+    @Override
+    public void close() {
+        // Pending writes get still performed, but no new writes are accepted.
+        this.writer.shutdown();
+        this.writer = null;
+        this.manager = null;
+    }
+
+    @Override
+    public void publish(@NotNull final SyncFrame frame) {
+        final SyncManager manager = this.manager;
+        final byte[] data = frame.encode();
+
+        this.writer.execute(() -> {
+            final Path target = this.getFile(frame.getUniqueId()).toPath();
+            final Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+            try {
+                Files.write(temp, data);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                manager.getInstance().getLogger().warning("Unable to write sync frame: " + ex.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public @Nullable SyncFrame fetch(@NotNull final UUID uniqueId) {
+        try {
+            return SyncFrame.decode(Files.readAllBytes(this.getFile(uniqueId).toPath()));
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (IOException ex) {
+            final SyncManager manager = this.manager;
+
+            if (manager != null) {
+                manager.getInstance().getLogger().warning("Unable to read sync frame: " + ex.getMessage());
+            }
+
+            return null;
+        }
+    }
+
+    private @NotNull File getFile(@NotNull final UUID uniqueId) {
+        return new File(this.directory, uniqueId + ".dat");
+    }
+}
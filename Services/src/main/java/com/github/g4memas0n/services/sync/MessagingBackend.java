@@ -0,0 +1,124 @@
+package com.github.g4memas0n.services.sync;
+
+import com.github.g4memas0n.services.Services;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Messaging Backend, that transports sync frames over the plugin messaging channel of BungeeCord.
+ *
+ * <p>Frames are forwarded to all other servers of the network. As plugin messages are sent over the connection of a
+ * player, frames are carried by the player of the frame itself, except handoff frames, which need another player
+ * online. The proxy queues forwarded frames for servers without players, until a player connects.</p>
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class MessagingBackend implements SyncBackend, PluginMessageListener {
+
+    private static final String CHANNEL = "BungeeCord";
+    private static final String SUBCHANNEL = "Services";
+
+    private SyncManager manager;
+
+    public MessagingBackend() { }
+
+    @Override
+    public void open(@NotNull final SyncManager manager) {
+        final Services instance = manager.getInstance();
+
+        instance.getServer().getMessenger().registerOutgoingPluginChannel(instance, CHANNEL);
+        instance.getServer().getMessenger().registerIncomingPluginChannel(instance, CHANNEL, this);
+
+        this.manager = manager;
+    }
+
+    @Override
+    public void close() {
+        final Services instance = this.manager.getInstance();
+
+        instance.getServer().getMessenger().unregisterOutgoingPluginChannel(instance, CHANNEL);
+        instance.getServer().getMessenger().unregisterIncomingPluginChannel(instance, CHANNEL, this);
+
+        this.manager = null;
+    }
+
+    @Override
+    public void publish(@NotNull final SyncFrame frame) {
+        final Services instance = this.manager.getInstance();
+        Player carrier = frame.isHandoff() ? null : instance.getServer().getPlayer(frame.getUniqueId());
+
+        // Note: the connection of the player of a handoff frame may already be closed.
+        if (carrier == null) {
+            for (final Player player : instance.getServer().getOnlinePlayers()) {
+                if (!player.getUniqueId().equals(frame.getUniqueId())) {
+                    carrier = player;
+                    break;
+                }
+            }
+        }
+
+        if (carrier == null) {
+            if (instance.getSettings().isDebug()) {
+                instance.getLogger().info("Unable to publish sync frame: No carrier player is online.");
+            }
+
+            return;
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + SyncFrame.LENGTH);
+
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeUTF("Forward");
+            output.writeUTF("ALL");
+            output.writeUTF(SUBCHANNEL);
+            output.writeShort(SyncFrame.LENGTH);
+            output.write(frame.encode());
+        } catch (IOException ex) {
+            instance.getLogger().warning("Unable to encode sync frame: " + ex.getMessage());
+            return;
+        }
+
+        carrier.sendPluginMessage(instance, CHANNEL, bytes.toByteArray());
+    }
+
+    @Override
+    public @Nullable SyncFrame fetch(@NotNull final UUID uniqueId) {
+        // Frames are pushed by the other servers, so there is nothing to fetch.
+        return null;
+    }
+
+    @Override
+    public void onPluginMessageReceived(@NotNull final String channel, @NotNull final Player player,
+                                        @NotNull final byte[] message) {
+        if (!channel.equals(CHANNEL) || this.manager == null) {
+            return;
+        }
+
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(message))) {
+            if (!input.readUTF().equals(SUBCHANNEL)) {
+                return;
+            }
+
+            final byte[] data = new byte[input.readUnsignedShort()];
+
+            input.readFully(data);
+
+            final SyncFrame frame = SyncFrame.decode(data);
+
+            if (frame != null) {
+                this.manager.receive(frame);
+            }
+        } catch (IOException ex) {
+            this.manager.getInstance().getLogger().warning("Unable to decode sync frame: " + ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.g4memas0n.services.sync;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.UUID;
+
+/**
+ * Sync Backend, that transports sync frames between the servers of a network.
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public interface SyncBackend {
+
+    /**
+     * Opens this backend. Received frames must be passed to {@link SyncManager#receive(SyncFrame)}.
+     *
+     * @param manager the sync manager that opens this backend.
+     */
+    void open(@NotNull final SyncManager manager);
+
+    /**
+     * Closes this backend.
+     */
+    void close();
+
+    /**
+     * Publishes the given frame to the other servers. This method is called on the main thread.
+     *
+     * @param frame the frame to publish.
+     */
+    void publish(@NotNull final SyncFrame frame);
+
+    /**
+     * Fetches the latest frame of the player with the given unique id, if the backend supports it.
+     *
+     * <p>Note: This method is called asynchronously and is allowed to block.</p>
+     *
+     * @param uniqueId the unique id of the player.
+     * @return the latest frame of the player or null if no frame is available.
+     */
+    @Nullable SyncFrame fetch(@NotNull final UUID uniqueId);
+}
@@ -0,0 +1,103 @@
+package com.github.g4memas0n.services.sync;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Sync Frame, that represents the synchronized service state of a player in a compact binary form.
+ *
+ * <p>A frame is encoded as: version (1 byte), flags (1 byte), unique id (16 bytes) and timestamp (8 bytes).</p>
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class SyncFrame {
+
+    /**
+     * The length of an encoded frame in bytes.
+     */
+    public static final int LENGTH = 26;
+
+    private static final byte VERSION = 1;
+    private static final byte SERVICE = 1;
+    private static final byte HANDOFF = 1 << 1;
+
+    private final UUID uniqueId;
+    private final boolean service;
+    private final boolean handoff;
+    private final long timestamp;
+
+    public SyncFrame(@NotNull final UUID uniqueId, final boolean service, final boolean handoff, final long timestamp) {
+        this.uniqueId = uniqueId;
+        this.service = service;
+        this.handoff = handoff;
+        this.timestamp = timestamp;
+    }
+
+    public @NotNull UUID getUniqueId() {
+        return this.uniqueId;
+    }
+
+    public boolean isService() {
+        return this.service;
+    }
+
+    /**
+     * Returns whether this frame was published when the player quit the server.
+     *
+     * <p>The connection of the player of a handoff frame may already be closed, so that the frame must be carried by
+     * another player. The service state of any frame is only taken over within the configured sync timeout and as
+     * long as no newer frame of the player was received.</p>
+     *
+     * @return true if this frame is a handoff frame.
+     */
+    public boolean isHandoff() {
+        return this.handoff;
+    }
+
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    public @NotNull byte[] encode() {
+        final ByteBuffer buffer = ByteBuffer.allocate(LENGTH);
+
+        buffer.put(VERSION);
+        buffer.put((byte) ((this.service ? SERVICE : 0) | (this.handoff ? HANDOFF : 0)));
+        buffer.putLong(this.uniqueId.getMostSignificantBits());
+        buffer.putLong(this.uniqueId.getLeastSignificantBits());
+        buffer.putLong(this.timestamp);
+
+        return buffer.array();
+    }
+
+    /**
+     * Decodes the given bytes to a frame.
+     *
+     * @param bytes the encoded frame.
+     * @return the decoded frame or null if the bytes are not a valid frame.
+     */
+    public static @Nullable SyncFrame decode(@NotNull final byte[] bytes) {
+        if (bytes.length != LENGTH || bytes[0] != VERSION) {
+            return null;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, LENGTH - 1);
+        final byte flags = buffer.get();
+        final UUID uniqueId = new UUID(buffer.getLong(), buffer.getLong());
+
+        return new SyncFrame(uniqueId, (flags & SERVICE) != 0, (flags & HANDOFF) != 0, buffer.getLong());
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return this.getClass().getSimpleName()
+                + "{unique-id=" + this.uniqueId
+                + ";service=" + this.service
+                + ";handoff=" + this.handoff
+                + ";timestamp=" + this.timestamp
+                + "}";
+    }
+}
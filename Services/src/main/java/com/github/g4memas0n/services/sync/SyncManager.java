@@ -0,0 +1,217 @@
+package com.github.g4memas0n.services.sync;
+
+import com.github.g4memas0n.services.Services;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sync Manager, that synchronizes the service state of players across the servers of a network.
+ *
+ * <p>Service state changes are published as {@link SyncFrame frames} over the configured {@link SyncBackend}.
+ * Received frames are kept in memory, so that the service state is already present when the join gets handled.
+ * Players that were in service on another server enter service again without a new warmup.</p>
+ *
+ * <p>Frames that are older than the configured sync timeout are stale and never taken over, so that the state of a
+ * server that stopped without publishing a handoff does not outlive the timeout. The service state of players in
+ * service gets published again in half the timeout, so that it is still valid when the player joins another server
+ * before it quits this server, as proxies connect the player to the new server first.</p>
+ *
+ * <p>Frames are only replaced by newer frames and are kept until they are stale, so that older frames that arrive
+ * late are always rejected. Published frames are kept too, so that a frame of another server does not outlive a
+ * newer state change on this server.</p>
+ *
+ * @author G4meMas0n
+ * @since Release 1.3.0
+ */
+public final class SyncManager {
+
+    /**
+     * The count of received frames, after that stale frames get purged.
+     */
+    private static final int PURGE_THRESHOLD = 256;
+
+    private final Map<UUID, SyncFrame> frames;
+    private final Services instance;
+
+    private volatile SyncBackend backend;
+    private BukkitTask refresh;
+
+    public SyncManager(@NotNull final Services instance) {
+        this.frames = new ConcurrentHashMap<>();
+        this.instance = instance;
+    }
+
+    public @NotNull Services getInstance() {
+        return this.instance;
+    }
+
+    public boolean isEnabled() {
+        return this.backend != null;
+    }
+
+    /**
+     * Opens the configured sync backend, after closing the currently opened backend.
+     */
+    public void reload() {
+        this.close();
+
+        switch (this.instance.getSettings().getSyncBackend()) {
+            case "file":
+                this.backend = new FileBackend(this.instance.getSettings().getSyncDirectory());
+                break;
+            case "plugin-messaging":
+                this.backend = new MessagingBackend();
+                break;
+            default:
+                return;
+        }
+
+        this.backend.open(this);
+
+        // Refresh the service state in half the timeout (in ticks), so that it never gets stale while in service:
+        final long period = this.instance.getSettings().getSyncTimeout() * 10L;
+
+        this.refresh = this.instance.getServer().getScheduler().runTaskTimer(this.instance, this::refresh, period, period);
+
+        if (this.instance.getSettings().isDebug()) {
+            this.instance.getLogger().info("Opened sync backend: " + this.instance.getSettings().getSyncBackend());
+        }
+    }
+
+    public void close() {
+        if (this.refresh != null) {
+            this.refresh.cancel();
+            this.refresh = null;
+        }
+
+        if (this.backend != null) {
+            this.backend.close();
+            this.backend = null;
+        }
+
+        this.frames.clear();
+    }
+
+    /**
+     * Publishes the service state of the given player to the other servers.
+     *
+     * @param player the player whose service state has changed.
+     * @param service whether the player is in service.
+     */
+    public void publish(@NotNull final Player player, final boolean service) {
+        if (this.backend != null) {
+            this.publish(new SyncFrame(player.getUniqueId(), service, false, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Publishes the service state of the given player, that is quitting, to the other servers.
+     *
+     * @param player the player that is quitting.
+     * @param service whether the player was in service before quitting.
+     */
+    public void handoff(@NotNull final Player player, final boolean service) {
+        if (this.backend != null) {
+            this.publish(new SyncFrame(player.getUniqueId(), service, true, System.currentTimeMillis()));
+        }
+    }
+
+    private void publish(@NotNull final SyncFrame frame) {
+        this.backend.publish(frame);
+        this.receive(frame);
+    }
+
+    /**
+     * Publishes the service state of all players in service again, so that their frames do not get stale.
+     */
+    private void refresh() {
+        if (this.backend == null) {
+            return;
+        }
+
+        for (final Player player : this.instance.getServer().getOnlinePlayers()) {
+            if (this.instance.getManager().isService(player)) {
+                this.publish(player, true);
+            }
+        }
+    }
+
+    /**
+     * Receives the given frame from another server.
+     *
+     * <p>Note: This method can safely be called from any thread.</p>
+     *
+     * @param frame the received frame.
+     */
+    public void receive(@NotNull final SyncFrame frame) {
+        // Note: frames of players that left service are kept too, so that older frames that arrive late are rejected.
+        this.frames.merge(frame.getUniqueId(), frame,
+                (previous, next) -> next.getTimestamp() >= previous.getTimestamp() ? next : previous);
+
+        if (this.frames.size() > PURGE_THRESHOLD) {
+            final long now = System.currentTimeMillis();
+
+            this.frames.values().removeIf(stored -> this.isStale(stored, now));
+        }
+    }
+
+    /**
+     * Fetches the latest frame of the player with the given unique id from the backend and takes over the
+     * synchronized service state of the player.
+     *
+     * <p>Note: This method is called asynchronously while the player logs in and is allowed to block.</p>
+     *
+     * @param uniqueId the unique id of the player that logs in.
+     * @return true if the player was in service on another server.
+     */
+    public boolean prefetch(@NotNull final UUID uniqueId) {
+        final SyncBackend backend = this.backend;
+
+        if (backend == null) {
+            return false;
+        }
+
+        final SyncFrame frame = backend.fetch(uniqueId);
+
+        if (frame != null) {
+            this.receive(frame);
+        }
+
+        return this.take(uniqueId);
+    }
+
+    /**
+     * Takes over the synchronized service state of the given player, that has joined the server.
+     *
+     * <p>This covers frames that were received after the player has logged in.</p>
+     *
+     * @param player the player that has joined.
+     * @return true if the player was in service on another server.
+     */
+    public boolean join(@NotNull final Player player) {
+        if (this.take(player.getUniqueId())) {
+            if (this.instance.getSettings().isDebug()) {
+                this.instance.getLogger().info(String.format("Player '%s' was in service on another server.", player.getName()));
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    private boolean take(@NotNull final UUID uniqueId) {
+        // Note: the frame is not removed, as it must still reject older frames that arrive late.
+        final SyncFrame frame = this.frames.get(uniqueId);
+
+        return frame != null && frame.isService() && !this.isStale(frame, System.currentTimeMillis());
+    }
+
+    private boolean isStale(@NotNull final SyncFrame frame, final long now) {
+        return now - frame.getTimestamp() > this.instance.getSettings().getSyncTimeout() * 1000L;
+    }
+}